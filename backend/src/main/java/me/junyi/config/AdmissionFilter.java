@@ -0,0 +1,88 @@
+package me.junyi.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AdmissionLimiter 로 요청을 받을지 결정합니다.
+ * 한도를 넘으면 컨트롤러까지 가지 않고 429 + Retry-After 로 바로 돌려보냅니다 (커넥션 풀 대기열에 쌓이지 않도록).
+ * 스트리밍 응답(비동기)은 응답이 끝날 때까지 커넥션을 쓰므로 비동기 처리가 완료될 때 자리를 반납합니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED_BODY = "{\"error\":\"서버가 혼잡합니다. 잠시 후 다시 시도해주세요.\"}";
+
+    private final AdmissionLimiter limiter;
+
+    public AdmissionFilter(AdmissionLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionLimiter.Endpoint endpoint = limiter.classify(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire(endpoint)) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(limiter.retryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(REJECTED_BODY);
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(endpoint));
+                async = true;
+            }
+        } finally {
+            if (!async) limiter.release(endpoint);
+        }
+    }
+
+    // 비동기 처리가 끝나면 반납 (타임아웃, 오류 뒤에도 onComplete 는 항상 호출됨)
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final AdmissionLimiter.Endpoint endpoint;
+
+        ReleaseOnComplete(AdmissionLimiter.Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(endpoint);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 다시 비동기를 시작하면 새 AsyncContext 에 리스너를 다시 붙여야 onComplete 를 받음
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
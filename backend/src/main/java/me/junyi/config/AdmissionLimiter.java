@@ -0,0 +1,226 @@
+package me.junyi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 엔드포인트 우선순위별 동시 요청 제한 (gradient 방식 적응형 한도).
+ *
+ * - 한도(limit)는 DB 문장 지연을 보고 주기적으로 조정합니다.
+ *   최근 구간 평균 지연(shortRtt)이 장기 기준(longRtt)보다 커지면 줄이고, 비슷하면 조금씩 늘립니다.
+ *   newLimit = limit * clamp(tolerance * longRtt / shortRtt, 0.5, 1.0) + sqrt(limit)
+ * - 우선순위마다 한도의 다른 비율까지만 받습니다.
+ *   CRITICAL(워크플로우 쓰기)은 최대 한도까지, NORMAL 은 한도까지, LOW(랭킹/전체 목록/내보내기)는 한도 * low-share 까지.
+ *   그래서 혼잡해지면 LOW 읽기부터 대기 없이 바로 거절(429)되고 쓰기 요청은 자리를 확보합니다.
+ */
+@Component
+public class AdmissionLimiter implements TracingDataSource.StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionLimiter.class);
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_ALPHA = 0.05;
+
+    public enum Priority {
+        CRITICAL, NORMAL, LOW, EXEMPT
+    }
+
+    // 위에서부터 처음 일치하는 규칙 적용 (method 가 null 이면 모든 메서드)
+    private record Rule(String method, String pattern, Priority priority) {
+    }
+
+    private static final List<Rule> RULES = List.of(
+            new Rule(null, "/api/admin/**", Priority.EXEMPT),
+            new Rule(null, "/api/export/jobs/**", Priority.EXEMPT),
+            new Rule("POST", "/api/case/start", Priority.CRITICAL),
+            new Rule("POST", "/api/cases/**", Priority.CRITICAL),
+            new Rule("GET", "/api/ranking/**", Priority.LOW),
+            new Rule("GET", "/api/export/**", Priority.LOW),
+            new Rule("GET", "/api/cases/available", Priority.LOW),
+            new Rule("GET", "/api/cases/culprit/available", Priority.LOW),
+            new Rule("GET", "/api/cases/police/pending", Priority.LOW),
+            new Rule(null, "/api/**", Priority.NORMAL)
+    );
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double lowShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private volatile double longRttNanos = -1;
+    private volatile double shortRttNanos = -1;
+    private volatile int maxInflightInWindow;
+
+    // 현재 구간의 DB 문장 지연 표본
+    private final LongAdder windowNanos = new LongAdder();
+    private final LongAdder windowCount = new LongAdder();
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<Priority, LongAdder> rejectedByPriority = new ConcurrentHashMap<>();
+
+    public AdmissionLimiter(@Value("${dbterm.admission.enabled:true}") boolean enabled,
+                            @Value("${dbterm.admission.initial-limit:20}") int initialLimit,
+                            @Value("${dbterm.admission.min-limit:4}") int minLimit,
+                            @Value("${dbterm.admission.max-limit:100}") int maxLimit,
+                            @Value("${dbterm.admission.low-share:0.5}") double lowShare) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.lowShare = lowShare;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 요청의 우선순위와 통계 키(일치한 규칙 패턴) */
+    public Endpoint classify(String method, String uri) {
+        for (Rule rule : RULES) {
+            if ((rule.method == null || rule.method.equals(method)) && matcher.match(rule.pattern, uri)) {
+                String key = (rule.method != null ? rule.method : "*") + " " + rule.pattern;
+                return endpoints.computeIfAbsent(key, k -> new Endpoint(k, rule.priority));
+            }
+        }
+        return endpoints.computeIfAbsent("* (other)", k -> new Endpoint(k, Priority.EXEMPT));
+    }
+
+    /** 받을 수 있으면 true (끝나면 반드시 release). 거절하면 false */
+    public boolean tryAcquire(Endpoint endpoint) {
+        if (!enabled || endpoint.priority == Priority.EXEMPT) {
+            endpoint.admitted.increment();
+            return true;
+        }
+        int allowed = switch (endpoint.priority) {
+            case CRITICAL -> maxLimit;
+            case NORMAL -> (int) limit;
+            default -> Math.max(1, (int) (limit * lowShare));
+        };
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                endpoint.rejected.increment();
+                rejectedByPriority.computeIfAbsent(endpoint.priority, p -> new LongAdder()).increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                if (current + 1 > maxInflightInWindow) maxInflightInWindow = current + 1;
+                endpoint.inflight.incrementAndGet();
+                endpoint.admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(Endpoint endpoint) {
+        if (!enabled || endpoint.priority == Priority.EXEMPT) return;
+        endpoint.inflight.decrementAndGet();
+        inflight.decrementAndGet();
+    }
+
+    /** 거절 응답의 Retry-After(초): 현재 평균 지연으로 한도만큼의 요청이 빠지는 데 걸리는 시간, 최소 1초 */
+    public long retryAfterSeconds() {
+        double rtt = shortRttNanos > 0 ? shortRttNanos : longRttNanos;
+        if (rtt <= 0) return 1;
+        double seconds = rtt * Math.max(1, inflight.get()) / Math.max(1, limit) / 1_000_000_000.0;
+        return Math.max(1, (long) Math.ceil(seconds));
+    }
+
+    @Override
+    public void onStatement(String sql, Map<Integer, Object> params, long elapsedNanos, long rows) {
+        windowNanos.add(elapsedNanos);
+        windowCount.increment();
+    }
+
+    /** 구간마다 한도 재계산 */
+    @Scheduled(fixedDelayString = "${dbterm.admission.update-interval-ms:250}")
+    public void updateLimit() {
+        if (!enabled) return;
+        long count = windowCount.sumThenReset();
+        long nanos = windowNanos.sumThenReset();
+        int peakInflight = maxInflightInWindow;
+        maxInflightInWindow = inflight.get();
+        if (count == 0) return;
+
+        double shortRtt = (double) nanos / count;
+        double longRtt = longRttNanos < 0 ? shortRtt : longRttNanos * (1 - LONG_RTT_ALPHA) + shortRtt * LONG_RTT_ALPHA;
+        // 부하가 빠진 뒤 장기 기준이 높게 남아 있으면 천천히 따라 내려옴
+        if (longRtt / shortRtt > 2) longRtt *= 0.95;
+        shortRttNanos = shortRtt;
+        longRttNanos = longRtt;
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double next = current * gradient + Math.sqrt(current);
+        // 한도의 절반도 쓰지 않는 동안에는 늘리지 않음 (실제로 검증되지 않은 한도가 커지는 것 방지)
+        if (next > current && peakInflight < current / 2) next = current;
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        next = Math.max(minLimit, Math.min(maxLimit, next));
+
+        if ((int) next != (int) current) {
+            log.debug("Admission limit {} -> {} (shortRtt={}ms, longRtt={}ms)", (int) current, (int) next,
+                    String.format("%.2f", shortRtt / 1_000_000), String.format("%.2f", longRtt / 1_000_000));
+        }
+        limit = next;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("limit", (int) limit);
+        stats.put("lowPriorityLimit", Math.max(1, (int) (limit * lowShare)));
+        stats.put("criticalLimit", maxLimit);
+        stats.put("inflight", inflight.get());
+        stats.put("shortRttMs", shortRttNanos < 0 ? null : shortRttNanos / 1_000_000);
+        stats.put("longRttMs", longRttNanos < 0 ? null : longRttNanos / 1_000_000);
+        Map<String, Long> rejected = new LinkedHashMap<>();
+        rejectedByPriority.forEach((priority, count) -> rejected.put(priority.name(), count.sum()));
+        stats.put("rejected", rejected);
+        stats.put("endpoints", endpoints.values().stream().map(Endpoint::toMap).toList());
+        return stats;
+    }
+
+    /** 규칙 하나에 해당하는 엔드포인트 묶음의 통계 */
+    public static final class Endpoint {
+        private final String key;
+        private final Priority priority;
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Endpoint(String key, Priority priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        public Priority priority() {
+            return priority;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", key);
+            map.put("priority", priority);
+            map.put("inflight", inflight.get());
+            map.put("admitted", admitted.sum());
+            map.put("rejected", rejected.sum());
+            return map;
+        }
+    }
+}
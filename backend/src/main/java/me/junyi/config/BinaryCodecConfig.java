@@ -0,0 +1,108 @@
+package me.junyi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Accept 헤더로 고르는 바이너리 응답 형식.
+ * - application/cbor: 반복되는 문자열(키, 닉네임, 사건 제목)을 stringref 태그로 한 번만 씀
+ * - application/x-jackson-smile: 반복되는 키와 짧은 문자열 값을 앞서 쓴 것에 대한 참조로 씀
+ * Accept 가 없거나 JSON 이면 지금처럼 JSON 으로 응답합니다 (JSON 변환기가 항상 앞에 있음).
+ * 날짜 형식 등 설정은 애플리케이션 ObjectMapper 를 그대로 복사해서 JSON 과 같은 필드/값이 나옵니다.
+ */
+@Configuration
+public class BinaryCodecConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public BinaryCodecConfig(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build());
+        this.smileMapper = objectMapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+
+    public ObjectMapper jsonMapper() {
+        return jsonMapper;
+    }
+
+    public ObjectMapper cborMapper() {
+        return cborMapper;
+    }
+
+    public ObjectMapper smileMapper() {
+        return smileMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // 기본 등록된 Smile/CBOR 변환기(별도 ObjectMapper, 참조 기능 꺼짐)를 교체해서 JSON 변환기 바로 뒤에 둠
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+                || c instanceof MappingJackson2SmileHttpMessageConverter);
+        int json = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) json = i + 1;
+        }
+        converters.add(json, new TracingCborConverter(cborMapper));
+        converters.add(json + 1, new TracingSmileConverter(smileMapper));
+    }
+
+    static class TracingCborConverter extends MappingJackson2CborHttpMessageConverter {
+
+        TracingCborConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Tracer.Span span = Tracer.start(Tracer.SERIALIZATION,
+                    "cbor " + (object == null ? "null" : object.getClass().getSimpleName()));
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                span.close();
+            }
+        }
+    }
+
+    static class TracingSmileConverter extends MappingJackson2SmileHttpMessageConverter {
+
+        TracingSmileConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Tracer.Span span = Tracer.start(Tracer.SERIALIZATION,
+                    "smile " + (object == null ? "null" : object.getClass().getSimpleName()));
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                span.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package me.junyi.config;
+
+import me.junyi.domain.CaseEventType;
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.Role;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.jdbc.core.dialect.JdbcPostgresDialect;
+import org.springframework.data.jdbc.repository.config.AbstractJdbcConfiguration;
+import org.springframework.data.relational.core.dialect.Dialect;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import java.util.List;
+
+@Configuration
+public class JdbcConfig extends AbstractJdbcConfiguration {
+
+    // 상태/역할/이벤트 종류 enum <-> smallint 코드 변환 (한글 라벨은 JSON 응답에서만 사용)
+    // PostgreSQL 드라이버는 smallint를 Integer로 읽어오므로 Reader는 Number를 받습니다.
+    @Override
+    protected List<?> userConverters() {
+        return List.of(
+                new CaseStatusWriter(), new CaseStatusReader(),
+                new RoleWriter(), new RoleReader(),
+                new CaseEventTypeWriter(), new CaseEventTypeReader()
+        );
+    }
+
+    // DB는 PostgreSQL 고정 - 기동 시 방언 감지를 위해 커넥션을 여는 과정을 생략합니다.
+    @Override
+    public Dialect jdbcDialect(NamedParameterJdbcOperations operations) {
+        return JdbcPostgresDialect.INSTANCE;
+    }
+
+    @WritingConverter
+    static class CaseStatusWriter implements Converter<CaseStatus, Short> {
+        @Override
+        public Short convert(CaseStatus source) {
+            return source.getCode();
+        }
+    }
+
+    @ReadingConverter
+    static class CaseStatusReader implements Converter<Number, CaseStatus> {
+        @Override
+        public CaseStatus convert(Number source) {
+            return CaseStatus.fromCode(source.shortValue());
+        }
+    }
+
+    @WritingConverter
+    static class RoleWriter implements Converter<Role, Short> {
+        @Override
+        public Short convert(Role source) {
+            return source.getCode();
+        }
+    }
+
+    @ReadingConverter
+    static class RoleReader implements Converter<Number, Role> {
+        @Override
+        public Role convert(Number source) {
+            return Role.fromCode(source.shortValue());
+        }
+    }
+
+    @WritingConverter
+    static class CaseEventTypeWriter implements Converter<CaseEventType, Short> {
+        @Override
+        public Short convert(CaseEventType source) {
+            return source.getCode();
+        }
+    }
+
+    @ReadingConverter
+    static class CaseEventTypeReader implements Converter<Number, CaseEventType> {
+        @Override
+        public CaseEventType convert(Number source) {
+            return CaseEventType.fromCode(source.shortValue());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package me.junyi.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 사건 샤드 라우팅 DataSource.
+ * 현재 스레드에 묶인 샤드 번호(bind)로 커넥션을 얻을 DB 를 고르고, 묶인 샤드가 없으면 전역 DB(기본 대상)를 씁니다.
+ * 샤드 선택은 커넥션을 얻는 시점에만 적용되므로, 트랜잭션 안에서는 시작할 때 고른 DB 가 끝까지 쓰입니다.
+ * 샤드를 묶고 푸는 쪽은 me.junyi.service.ShardRouter 입니다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    /** 현재 스레드에 묶인 샤드 (없으면 null = 전역 DB) */
+    public static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    /** 샤드를 묶고 이전 값을 반환 (null 이면 전역 DB). 끝나면 반드시 restore(이전 값) */
+    public static Integer bind(Integer shard) {
+        Integer previous = CURRENT.get();
+        if (shard == null) CURRENT.remove();
+        else CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        bind(previous);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,82 @@
+package me.junyi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사건 테이블 샤딩 (dbterm.sharding.enabled=true 일 때만).
+ * 기본 DataSource 를 ShardRoutingDataSource 로 바꿔서, 기존 리포지토리와 JdbcTemplate 이
+ * 전역 DB(spring.datasource.*) 또는 dbterm.sharding.urls 의 샤드 중 하나로 커넥션을 얻게 합니다.
+ * 샤드는 전역 DB 와 같은 계정을 쓰며 샤드마다 별도 커넥션 풀(pool-size)을 둡니다.
+ * 사건 → 샤드 대응과 트랜잭션 경계는 me.junyi.service.ShardRouter, 샤드 준비는 database/migration/008_case_shards.sql 참고.
+ */
+@Configuration
+@ConditionalOnProperty(name = "dbterm.sharding.enabled", havingValue = "true")
+public class ShardingConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    /** 쉼표로 구분된 샤드 JDBC URL 목록 (순서가 곧 샤드 번호) */
+    public static List<String> shardUrls(String urls) {
+        if (urls == null) return List.of();
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${dbterm.sharding.urls:}") String urls,
+                                 @Value("${dbterm.sharding.pool-size:10}") int poolSize) {
+        List<String> shardUrls = shardUrls(urls);
+        if (shardUrls.isEmpty()) {
+            throw new IllegalStateException("dbterm.sharding.urls 에 샤드 DB 주소가 없습니다.");
+        }
+
+        HikariDataSource global = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        global.setPoolName("global");
+        pools.add(global);
+
+        Map<Object, Object> shards = new HashMap<>();
+        for (int i = 0; i < shardUrls.size(); i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + i);
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setJdbcUrl(shardUrls.get(i));
+            shard.setUsername(properties.determineUsername());
+            shard.setPassword(properties.determinePassword());
+            shard.setMaximumPoolSize(poolSize);
+            pools.add(shard);
+            shards.put(i, shard);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setDefaultTargetDataSource(global);
+        routing.setTargetDataSources(shards);
+        // 없는 샤드 번호로 전역 DB 에 잘못 쓰지 않도록 (null 만 전역 DB)
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    // 라우팅 DataSource 는 TracingDataSource 로 감싸지므로 풀은 여기서 닫음
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,307 @@
+package me.junyi.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 느린 쿼리 로그.
+ * TracingDataSource 로부터 모든 SQL 문을 통지받아 쿼리 형태(리터럴을 ? 로 바꾼 SQL)별로 호출 수와 시간을 집계하고,
+ * 기준 시간(threshold-ms)을 넘은 문장은 바인드 파라미터와 함께 최근 목록에 남깁니다.
+ * 형태마다 처음 몇 번(explain-samples)은 별도 커넥션에서 EXPLAIN 을 비동기로 실행해 실행 계획을 보관합니다.
+ * ANALYZE 는 문장을 실제로 실행하므로 읽기 전용 SELECT / WITH 에만 붙이고(트랜잭션 안에서 실행 후 롤백),
+ * 쓰기 문장은 행 잠금과 ID 소비를 피하기 위해 실행하지 않는 EXPLAIN 으로 계획만 남깁니다.
+ * 사건 샤딩 중이면 문장을 실행한 스레드에 묶여 있던 샤드를 함께 기록하고, 같은 샤드에서 EXPLAIN 합니다.
+ */
+@Component
+public class SlowQueryLog implements TracingDataSource.StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final String OTHER_SHAPE = "(other)";
+    private static final int MAX_PARAM_LENGTH = 200;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // 쓰기 CTE, SELECT ... FOR UPDATE / SHARE, 시퀀스 소비
+    private static final Pattern WRITES = Pattern.compile("(?i)\\b(?:INSERT|UPDATE|DELETE|MERGE|SHARE|nextval|setval)\\b");
+    private static final String EXPLAIN_ANALYZE = "EXPLAIN (ANALYZE, BUFFERS) ";
+    private static final String EXPLAIN_PLAN = "EXPLAIN ";
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int explainSamples;
+    private final long explainTimeoutMs;
+    private final int maxShapes;
+
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Map<String, Object>> recent;
+    private final AtomicLong recentCursor = new AtomicLong();
+    private final LongAdder explainsDropped = new LongAdder();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryLog(DataSource dataSource,
+                        @Value("${dbterm.slow-query.enabled:true}") boolean enabled,
+                        @Value("${dbterm.slow-query.threshold-ms:100}") long thresholdMs,
+                        @Value("${dbterm.slow-query.explain-samples:3}") int explainSamples,
+                        @Value("${dbterm.slow-query.explain-timeout-ms:5000}") long explainTimeoutMs,
+                        @Value("${dbterm.slow-query.max-shapes:1000}") int maxShapes,
+                        @Value("${dbterm.slow-query.recent-capacity:100}") int recentCapacity) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explainSamples = explainSamples;
+        this.explainTimeoutMs = explainTimeoutMs;
+        this.maxShapes = maxShapes;
+        this.recent = new AtomicReferenceArray<>(recentCapacity);
+
+        // EXPLAIN 은 한 번에 하나씩, 밀리면 버림 (요청 처리 스레드는 기다리지 않음)
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-explain");
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, executor) -> explainsDropped.increment());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onStatement(String sql, Map<Integer, Object> params, long elapsedNanos, long rows) {
+        Shape shape = shapeOf(sql);
+        shape.record(elapsedNanos);
+        if (elapsedNanos < thresholdNanos) return;
+
+        shape.slowCalls.increment();
+        Map<Integer, Object> bound = copyParams(params);
+        Integer shard = ShardRoutingDataSource.currentShard();
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("at", LocalDateTime.now());
+        entry.put("elapsedMs", elapsedNanos / 1_000_000.0);
+        entry.put("rows", rows < 0 ? null : rows);
+        entry.put("thread", Thread.currentThread().getName());
+        if (shard != null) entry.put("shard", shard);
+        entry.put("sql", TracingDataSource.abbreviate(sql));
+        entry.put("params", bound);
+        recent.set((int) (recentCursor.getAndIncrement() % recent.length()), entry);
+        log.warn("Slow query ({} ms, {} rows): {} {}", String.format("%.1f", elapsedNanos / 1_000_000.0),
+                rows, TracingDataSource.abbreviate(sql), bound);
+
+        String command = explainCommand(sql);
+        if (command != null && shape.explainsRequested.incrementAndGet() <= explainSamples) {
+            explainExecutor.execute(() -> explain(shape, command, sql, bound, shard, elapsedNanos));
+        }
+    }
+
+    private Shape shapeOf(String sql) {
+        String key = normalized.get(sql);
+        if (key == null) {
+            key = normalize(sql);
+            // 동적으로 만든 SQL 이 끝없이 늘어나지 않도록 상한
+            if (normalized.size() < maxShapes * 4) normalized.put(sql, key);
+        }
+        Shape shape = shapes.get(key);
+        if (shape != null) return shape;
+        if (shapes.size() >= maxShapes) return shapes.computeIfAbsent(OTHER_SHAPE, Shape::new);
+        return shapes.computeIfAbsent(key, Shape::new);
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("IN (...)");
+    }
+
+    // SELECT / WITH / INSERT / UPDATE / DELETE 만 (DDL, LOCK, SET 등은 null). 읽기 전용일 때만 ANALYZE
+    static String explainCommand(String sql) {
+        String head = sql.stripLeading();
+        int end = 0;
+        while (end < head.length() && Character.isLetter(head.charAt(end))) end++;
+        String keyword = head.substring(0, end).toUpperCase(Locale.ROOT);
+        return switch (keyword) {
+            case "SELECT", "WITH" -> WRITES.matcher(STRING_LITERAL.matcher(sql).replaceAll("''")).find()
+                    ? EXPLAIN_PLAN : EXPLAIN_ANALYZE;
+            case "INSERT", "UPDATE", "DELETE" -> EXPLAIN_PLAN;
+            default -> null;
+        };
+    }
+
+    private void explain(Shape shape, String command, String sql, Map<Integer, Object> params, Integer shard,
+                         long elapsedNanos) {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("capturedAt", LocalDateTime.now());
+        if (shard != null) sample.put("shard", shard);
+        sample.put("analyzed", command.equals(EXPLAIN_ANALYZE));
+        sample.put("elapsedMs", elapsedNanos / 1_000_000.0);
+        sample.put("params", params);
+
+        // 계측 대상이 아닌 원본 DataSource 의 별도 커넥션 사용 (자기 자신을 다시 기록하지 않도록)
+        DataSource raw = dataSource instanceof DelegatingDataSource delegating
+                ? delegating.getTargetDataSource() : dataSource;
+        // 샤드 테이블의 문장은 그 샤드에서 (라우팅 DataSource 는 커넥션을 얻을 때 묶인 샤드를 봄)
+        Integer previous = ShardRoutingDataSource.bind(shard);
+        try (Connection con = raw.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                try (Statement st = con.createStatement()) {
+                    st.execute("SET LOCAL statement_timeout = " + explainTimeoutMs);
+                }
+                List<String> plan = new ArrayList<>();
+                try (PreparedStatement ps = con.prepareStatement(command + sql)) {
+                    for (Map.Entry<Integer, Object> p : params.entrySet()) ps.setObject(p.getKey(), p.getValue());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) plan.add(rs.getString(1));
+                    }
+                }
+                sample.put("plan", plan);
+            } finally {
+                con.rollback();
+            }
+        } catch (SQLException | RuntimeException e) {
+            sample.put("error", e.getMessage());
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+        shape.plans.add(sample);
+    }
+
+    // 보관용 복사. 긴 값은 잘라서 저장
+    private static Map<Integer, Object> copyParams(Map<Integer, Object> params) {
+        Map<Integer, Object> copy = new TreeMap<>();
+        params.forEach((index, value) -> {
+            if (value instanceof String s && s.length() > MAX_PARAM_LENGTH) {
+                copy.put(index, s.substring(0, MAX_PARAM_LENGTH) + "...");
+            } else {
+                copy.put(index, value);
+            }
+        });
+        return copy;
+    }
+
+    /** 쿼리 형태별 집계 (sort: total | mean | count | max) */
+    public List<Map<String, Object>> summary(String sort, int limit) {
+        ToDoubleFunction<Shape> key = switch (sort) {
+            case "mean" -> Shape::meanNanos;
+            case "count" -> s -> s.calls.sum();
+            case "max" -> s -> s.maxNanos.get();
+            default -> s -> s.totalNanos.sum();
+        };
+        return shapes.values().stream()
+                .sorted(Comparator.comparingDouble(key).reversed())
+                .limit(limit)
+                .map(Shape::toMap)
+                .toList();
+    }
+
+    /** 최근 느린 문장 (최신순) */
+    public List<Map<String, Object>> recent() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        long end = recentCursor.get();
+        for (long i = end - 1; i >= Math.max(0, end - recent.length()); i--) {
+            Map<String, Object> entry = recent.get((int) (i % recent.length()));
+            if (entry != null) entries.add(entry);
+        }
+        return entries;
+    }
+
+    public void reset() {
+        shapes.clear();
+        normalized.clear();
+        for (int i = 0; i < recent.length(); i++) recent.set(i, null);
+        recentCursor.set(0);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("thresholdMs", TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        stats.put("shapes", shapes.size());
+        stats.put("slowStatements", recentCursor.get());
+        stats.put("explainQueue", explainExecutor.getQueue().size());
+        stats.put("explainsDropped", explainsDropped.sum());
+        return stats;
+    }
+
+    /** 쿼리 형태 하나의 누적 통계 */
+    static final class Shape {
+        private final String sql;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicInteger explainsRequested = new AtomicInteger();
+        private final List<Map<String, Object>> plans = new CopyOnWriteArrayList<>();
+
+        Shape(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        double meanNanos() {
+            long count = calls.sum();
+            return count == 0 ? 0 : (double) totalNanos.sum() / count;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("calls", calls.sum());
+            map.put("totalMs", totalNanos.sum() / 1_000_000.0);
+            map.put("meanMs", meanNanos() / 1_000_000.0);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            map.put("slowCalls", slowCalls.sum());
+            map.put("plans", plans);
+            return map;
+        }
+    }
+}
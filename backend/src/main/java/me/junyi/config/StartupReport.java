@@ -0,0 +1,68 @@
+package me.junyi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기동 시간 리포트.
+ * JVM 시작 → 컨텍스트 준비 완료, JVM 시작 → 첫 요청 응답 완료(time-to-first-request)를 기록합니다.
+ * fast-start 빌드(AOT + AppCDS)의 효과를 비교할 때 사용합니다.
+ */
+@Component
+public class StartupReport extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private volatile long contextStartupMs = -1;
+    private volatile long jvmToReadyMs = -1;
+    private volatile long jvmToFirstRequestMs = -1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        contextStartupMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+        jvmToReadyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Startup report: {}", snapshot());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, response);
+
+        if (jvmToFirstRequestMs < 0) {
+            synchronized (this) {
+                if (jvmToFirstRequestMs < 0) {
+                    jvmToFirstRequestMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                    log.info("Time to first request: {} ms ({} {})",
+                            jvmToFirstRequestMs, request.getMethod(), request.getRequestURI());
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("aotEnabled", AotDetector.useGeneratedArtifacts());
+        report.put("cdsArchive", ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-XX:SharedArchiveFile"))
+                .findFirst().orElse(null));
+        report.put("contextStartupMs", contextStartupMs);
+        report.put("jvmToReadyMs", jvmToReadyMs);
+        report.put("jvmToFirstRequestMs", jvmToFirstRequestMs);
+        return report;
+    }
+}
@@ -0,0 +1,50 @@
+package me.junyi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 요청마다 트레이스를 시작하고 끝나면 Tracer 링 버퍼에 저장합니다.
+ * 트레이스 조회 요청 자체는 추적하지 않습니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TraceFilter extends OncePerRequestFilter {
+
+    private static final String TRACES_PATH = "/api/admin/traces";
+
+    private final Tracer tracer;
+
+    public TraceFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(TRACES_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Tracer.Span root = tracer.begin(request.getMethod(), request.getRequestURI());
+        if (root == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // 스트리밍 응답(비동기)은 첫 디스패치가 끝난 시점까지만 기록
+            tracer.finish(root, response.getStatus(), request.isAsyncStarted());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package me.junyi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 요청 단위 경량 트레이싱.
+ * 샘플링된 요청마다 스팬 트리(HTTP → 컨트롤러 → 서비스 → SQL / 직렬화)를 만들고,
+ * 끝난 트레이스는 고정 크기 링 버퍼에 덮어쓰며 보관합니다 (락 없이 슬롯 교체만 함).
+ *
+ * 계측 지점은 Tracer.start(kind, name) 으로 스팬을 열고 close() 로 닫습니다.
+ * 현재 스레드에 트레이스가 없으면(샘플링 제외, 백그라운드 작업) 아무것도 하지 않는 NOOP 스팬을 돌려줍니다.
+ */
+@Component
+public class Tracer {
+
+    public static final String HTTP = "http";
+    public static final String CONTROLLER = "controller";
+    public static final String SERVICE = "service";
+    public static final String SQL = "sql";
+    public static final String SERIALIZATION = "serialization";
+    public static final String TASK = "task";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxSpans;
+    private final AtomicReferenceArray<Trace> ring;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong traceSeq = new AtomicLong();
+
+    public Tracer(@Value("${dbterm.trace.enabled:true}") boolean enabled,
+                  @Value("${dbterm.trace.sample-rate:1.0}") double sampleRate,
+                  @Value("${dbterm.trace.capacity:256}") int capacity,
+                  @Value("${dbterm.trace.max-spans:500}") int maxSpans) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxSpans = maxSpans;
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /** 요청 시작. 샘플링에서 빠지면 null */
+    public Span begin(String method, String uri) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) return null;
+        Trace trace = new Trace(traceSeq.incrementAndGet(), method, uri, maxSpans);
+        Span root = new Span(trace, null, HTTP, method + " " + uri);
+        CURRENT.set(root);
+        return root;
+    }
+
+    /** 요청 종료. 루트 스팬을 닫고 링 버퍼에 저장 */
+    public void finish(Span root, int status, boolean async) {
+        root.close();
+        CURRENT.remove();
+        root.trace.status = status;
+        root.trace.async = async;
+        int slot = (int) (cursor.getAndIncrement() % ring.length());
+        ring.set(slot, root.trace);
+    }
+
+    /** 현재 스팬 아래에 자식 스팬 시작 */
+    public static Span start(String kind, String name) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.trace.reserve()) return Span.NOOP;
+        Span span = new Span(parent.trace, parent, kind, name);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /** 현재 스레드가 추적 중인지 (계측 비용을 아끼고 싶을 때) */
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    /** 다른 스레드(작업 풀)에서 실행할 작업을 현재 트레이스의 자식 스팬으로 묶음 */
+    public static <T> Supplier<T> propagate(String name, Supplier<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) return task;
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            Span span = start(TASK, name);
+            try {
+                return task.get();
+            } finally {
+                span.close();
+                if (previous != null) CURRENT.set(previous);
+                else CURRENT.remove();
+            }
+        };
+    }
+
+    /** minMs 이상 걸린 최근 트레이스 (느린 순) */
+    public List<Map<String, Object>> traces(long minMs, int limit) {
+        List<Trace> traces = new ArrayList<>();
+        for (int i = 0; i < ring.length(); i++) {
+            Trace trace = ring.get(i);
+            if (trace != null && trace.root.durationNanos >= minMs * 1_000_000) traces.add(trace);
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingLong((Trace t) -> t.root.durationNanos).reversed())
+                .limit(limit)
+                .map(Trace::toMap)
+                .toList();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sampleRate", sampleRate);
+        stats.put("capacity", ring.length());
+        stats.put("recorded", cursor.get());
+        return stats;
+    }
+
+    /** 요청 하나의 트레이스 */
+    static final class Trace {
+        private final long id;
+        private final String method;
+        private final String uri;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final int maxSpans;
+        private final AtomicInteger spans = new AtomicInteger(1);
+        private final AtomicInteger dropped = new AtomicInteger();
+        private Span root;
+        private volatile int status;
+        private volatile boolean async;
+
+        Trace(long id, String method, String uri, int maxSpans) {
+            this.id = id;
+            this.method = method;
+            this.uri = uri;
+            this.maxSpans = maxSpans;
+        }
+
+        // 스팬 수 상한 (N+1 조회 등으로 스팬이 폭증해도 메모리 제한)
+        boolean reserve() {
+            if (spans.incrementAndGet() <= maxSpans) return true;
+            spans.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("method", method);
+            map.put("uri", uri);
+            map.put("status", status);
+            map.put("async", async);
+            map.put("startedAt", startedAt);
+            map.put("durationMs", root.durationNanos / 1_000_000.0);
+            map.put("spanCount", spans.get());
+            map.put("droppedSpans", dropped.get());
+            map.put("root", root.toMap());
+            return map;
+        }
+    }
+
+    /** 스팬 하나 (시작 시각은 트레이스 시작 기준 상대값) */
+    public static class Span implements AutoCloseable {
+
+        static final Span NOOP = new Span(null, null, null, null) {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void addRows(long count) {
+            }
+
+            @Override
+            public void addNanos(long nanos) {
+            }
+        };
+
+        private final Trace trace;
+        private final Span parent;
+        private final String kind;
+        private final String name;
+        private final long startNanos;
+        private final List<Span> children = new ArrayList<>(0);
+        private volatile long durationNanos = -1;
+        private volatile long rows = -1;
+
+        Span(Trace trace, Span parent, String kind, String name) {
+            this.trace = trace;
+            this.parent = parent;
+            this.kind = kind;
+            this.name = name;
+            this.startNanos = System.nanoTime();
+            if (trace != null && parent == null) trace.root = this;
+            if (parent != null) {
+                synchronized (parent.children) {
+                    parent.children.add(this);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (durationNanos < 0) durationNanos = System.nanoTime() - startNanos;
+            if (CURRENT.get() == this) {
+                if (parent != null) CURRENT.set(parent);
+                else CURRENT.remove();
+            }
+        }
+
+        /** 결과 행 수 누적 (ResultSet 을 읽을 때마다, 또는 갱신 건수) */
+        public void addRows(long count) {
+            rows = rows < 0 ? count : rows + count;
+        }
+
+        /** 스팬이 닫힌 뒤에 쓴 시간 추가 (ResultSet fetch 시간 등) */
+        public void addNanos(long nanos) {
+            if (durationNanos >= 0) durationNanos += nanos;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("kind", kind);
+            map.put("name", name);
+            map.put("startMs", (startNanos - trace.startNanos) / 1_000_000.0);
+            map.put("durationMs", durationNanos < 0 ? null : durationNanos / 1_000_000.0);
+            if (rows >= 0) map.put("rows", rows);
+            List<Span> snapshot;
+            synchronized (children) {
+                snapshot = List.copyOf(children);
+            }
+            if (!snapshot.isEmpty()) map.put("children", snapshot.stream().map(Span::toMap).toList());
+            return map;
+        }
+    }
+}
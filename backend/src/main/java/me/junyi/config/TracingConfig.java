@@ -0,0 +1,98 @@
+package me.junyi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Tracer 계측 지점 등록.
+ * - @RestController / @Service 메서드: 스팬(controller / service)으로 감쌈 (기존 @Transactional 프록시보다 바깥)
+ * - DataSource: SQL 문마다 스팬 (TracingDataSource), StatementListener 빈들(느린 쿼리 로그, 부하 제어)로 통지
+ * - JSON 응답 직렬화: 스팬(serialization)
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(
+            ObjectProvider<TracingDataSource.StatementListener> statementListeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof TracingDataSource) return bean;
+                return new TracingDataSource(ds,
+                        () -> TracingDataSource.StatementListener.composite(statementListeners.orderedStream().toList()));
+            }
+        };
+    }
+
+    @Bean
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor tracingAdvisingPostProcessor() {
+        return new AbstractBeanFactoryAwareAdvisingPostProcessor() {
+            {
+                MethodInterceptor interceptor = invocation -> {
+                    if (!Tracer.active()) return invocation.proceed();
+                    Class<?> type = AopUtils.getTargetClass(invocation.getThis());
+                    String kind = type.isAnnotationPresent(RestController.class) ? Tracer.CONTROLLER : Tracer.SERVICE;
+                    Tracer.Span span = Tracer.start(kind, type.getSimpleName() + "." + invocation.getMethod().getName());
+                    try {
+                        return invocation.proceed();
+                    } finally {
+                        span.close();
+                    }
+                };
+                ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(RestController.class, true))
+                        .union(new AnnotationMatchingPointcut(Service.class, true));
+                this.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+                setBeforeExistingAdvisors(true);
+                setProxyTargetClass(true);
+            }
+        };
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+                ? new TracingJacksonConverter(jackson.getObjectMapper()) : converter);
+    }
+
+    // JSON 직렬화 시간 측정
+    static class TracingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        TracingJacksonConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Tracer.Span span = Tracer.start(Tracer.SERIALIZATION,
+                    object == null ? "null" : object.getClass().getSimpleName());
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                span.close();
+            }
+        }
+    }
+}
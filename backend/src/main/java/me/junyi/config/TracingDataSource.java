@@ -0,0 +1,246 @@
+package me.junyi.config;
+
+import org.postgresql.jdbc.PgStatement;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * SQL 문 계측용 DataSource 래퍼.
+ * - 추적 중인 요청이면 문장마다 Tracer 스팬(kind=sql)을 남기고, ResultSet fetch 시간과 행 수도 같은 스팬에 누적합니다.
+ * - StatementListener(느린 쿼리 로그, 부하 제어)가 있으면 모든 문장의 실행 시간, 바인드 파라미터, 행 수를 알립니다.
+ * - withDeadline 으로 마감 시각이 걸린 스레드에서는 문장마다 남은 시간을 쿼리 타임아웃으로 걸어 DB 에서 끊게 합니다.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_SQL_LENGTH = 300;
+
+    /** 실행이 끝난 SQL 문 통지. rows 는 갱신 건수 또는 읽은 행 수 (모르면 -1), params 는 보관하려면 복사해야 함 */
+    public interface StatementListener {
+        void onStatement(String sql, Map<Integer, Object> params, long elapsedNanos, long rows);
+
+        default boolean isEnabled() {
+            return true;
+        }
+
+        /** 활성화된 리스너만 묶음 (없으면 null) */
+        static StatementListener composite(List<? extends StatementListener> listeners) {
+            List<StatementListener> enabled = listeners.stream()
+                    .filter(StatementListener::isEnabled)
+                    .map(StatementListener.class::cast)
+                    .toList();
+            if (enabled.isEmpty()) return null;
+            if (enabled.size() == 1) return enabled.get(0);
+            return (sql, params, elapsedNanos, rows) -> {
+                for (StatementListener l : enabled) l.onStatement(sql, params, elapsedNanos, rows);
+            };
+        }
+    }
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final Supplier<StatementListener> listenerLookup;
+    private volatile StatementListener listener;
+    private volatile boolean listenerResolved;
+
+    public TracingDataSource(DataSource target, Supplier<StatementListener> listenerLookup) {
+        super(target);
+        this.listenerLookup = listenerLookup;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /** work 안에서 만드는 SQL 문에 deadlineNanos(System.nanoTime 기준)까지 남은 시간을 쿼리 타임아웃으로 적용 */
+    public static <T> Supplier<T> withDeadline(long deadlineNanos, Supplier<T> work) {
+        return () -> {
+            Long previous = DEADLINE.get();
+            DEADLINE.set(deadlineNanos);
+            try {
+                return work.get();
+            } finally {
+                if (previous != null) DEADLINE.set(previous);
+                else DEADLINE.remove();
+            }
+        };
+    }
+
+    /** 현재 스레드의 마감 시각을 다른 스레드에서 실행할 작업에도 적용 (없으면 그대로) */
+    public static <T> Supplier<T> inheritDeadline(Supplier<T> work) {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? withDeadline(deadline, work) : work;
+    }
+
+    // 리스너 빈은 DataSource 보다 늦게 만들어지므로 처음 필요할 때 한 번만 찾음 (비활성이면 null)
+    private StatementListener listener() {
+        if (!listenerResolved) {
+            listener = listenerLookup.get();
+            listenerResolved = true;
+        }
+        return listener;
+    }
+
+    private Connection wrap(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement st) applyDeadline(st);
+            String name = method.getName();
+            if (result instanceof CallableStatement cs && name.equals("prepareCall")) {
+                return wrapStatement(CallableStatement.class, cs, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement ps && name.equals("prepareStatement")) {
+                return wrapStatement(PreparedStatement.class, ps, (String) args[0]);
+            }
+            if (result instanceof Statement st && name.equals("createStatement")) {
+                return wrapStatement(Statement.class, st, null);
+            }
+            return result;
+        });
+    }
+
+    // 마감 시각이 지났으면 보내지 않고, 남았으면 드라이버 타임아웃(PostgreSQL 은 ms 단위 취소 요청)으로 서버 실행을 끊음
+    private static void applyDeadline(Statement statement) throws SQLException {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) return;
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            statement.close();
+            throw new SQLTimeoutException("Query deadline exceeded");
+        }
+        if (statement.isWrapperFor(PgStatement.class)) {
+            statement.unwrap(PgStatement.class).setQueryTimeoutMs(remainingMs);
+        } else {
+            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+        }
+    }
+
+    private <S extends Statement> S wrapStatement(Class<S> type, S target, String preparedSql) {
+        Map<Integer, Object> params = preparedSql != null ? new TreeMap<>() : Map.of();
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+
+            // 바인드 파라미터 기록 (setXxx(index, value, ...))
+            if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                params.put(index, name.equals("setNull") ? null : args[1]);
+                return invoke(target, method, args);
+            }
+            if (preparedSql != null && name.equals("clearParameters")) params.clear();
+            if (!name.startsWith("execute")) return invoke(target, method, args);
+
+            StatementListener l = listener();
+            boolean traced = Tracer.active();
+            if (l == null && !traced) return invoke(target, method, args);
+
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String s ? s : "(batch)";
+            Tracer.Span span = traced ? Tracer.start(Tracer.SQL, abbreviate(sql)) : Tracer.Span.NOOP;
+            long start = System.nanoTime();
+            long rows = -1;
+            boolean deferred = false;
+            try {
+                Object result = invoke(target, method, args);
+                if (result instanceof ResultSet rs) {
+                    // 행 수는 ResultSet 을 다 읽고 닫을 때 알 수 있음
+                    deferred = true;
+                    long elapsed = System.nanoTime() - start;
+                    return wrapResultSet(rs, span, rowCount -> {
+                        if (l != null) l.onStatement(sql, params, elapsed, rowCount);
+                    });
+                }
+                if (result instanceof Integer count) rows = count;
+                else if (result instanceof Long count) rows = count;
+                else if (result instanceof int[] counts) {
+                    rows = 0;
+                    for (int c : counts) if (c > 0) rows += c;
+                }
+                if (rows >= 0) span.addRows(rows);
+                return result;
+            } finally {
+                span.close();
+                if (l != null && !deferred) {
+                    l.onStatement(sql, params, System.nanoTime() - start, rows);
+                }
+            }
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet target, Tracer.Span span, LongConsumer onClose) {
+        span.addRows(0);
+        long[] rows = {0};
+        boolean[] closed = {false};
+        return proxy(ResultSet.class, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("close") && !closed[0]) {
+                closed[0] = true;
+                onClose.accept(rows[0]);
+                return invoke(target, method, args);
+            }
+            if (!name.equals("next")) return invoke(target, method, args);
+            long start = System.nanoTime();
+            Object hasRow = invoke(target, method, args);
+            span.addNanos(System.nanoTime() - start);
+            if (Boolean.TRUE.equals(hasRow)) {
+                span.addRows(1);
+                rows[0]++;
+            }
+            return hasRow;
+        });
+    }
+
+    static String abbreviate(String sql) {
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        return compact.length() <= MAX_SQL_LENGTH ? compact : compact.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "unwrap", "isWrapperFor":
+                            // 실제 드라이버 객체 기준
+                            return invoke(target, method, args);
+                        default:
+                            break;
+                    }
+                    return handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package me.junyi.controller;
+
+import me.junyi.config.AdmissionLimiter;
+import me.junyi.config.SlowQueryLog;
+import me.junyi.config.StartupReport;
+import me.junyi.config.Tracer;
+import me.junyi.service.ActivityFeed;
+import me.junyi.service.CacheInvalidationBus;
+import me.junyi.service.CaseArchiver;
+import me.junyi.service.CaseProjector;
+import me.junyi.service.EvidenceCatalog;
+import me.junyi.service.IdempotencyService;
+import me.junyi.service.PayloadCodecBenchmark;
+import me.junyi.service.ScoreOutbox;
+import me.junyi.service.ScoreReconciler;
+import me.junyi.service.ShardRouter;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final EvidenceCatalog evidenceCatalog;
+    private final StartupReport startupReport;
+    private final CacheInvalidationBus invalidationBus;
+    private final CaseProjector caseProjector;
+    private final Tracer tracer;
+    private final SlowQueryLog slowQueryLog;
+    private final AdmissionLimiter admissionLimiter;
+    private final IdempotencyService idempotencyService;
+    private final PayloadCodecBenchmark codecBenchmark;
+    private final CaseArchiver caseArchiver;
+    private final ScoreReconciler scoreReconciler;
+    private final ActivityFeed activityFeed;
+    private final ShardRouter shardRouter;
+    private final ScoreOutbox scoreOutbox;
+
+    public AdminController(EvidenceCatalog evidenceCatalog, StartupReport startupReport,
+                           CacheInvalidationBus invalidationBus, CaseProjector caseProjector, Tracer tracer,
+                           SlowQueryLog slowQueryLog, AdmissionLimiter admissionLimiter,
+                           IdempotencyService idempotencyService, PayloadCodecBenchmark codecBenchmark,
+                           CaseArchiver caseArchiver, ScoreReconciler scoreReconciler,
+                           ActivityFeed activityFeed, ShardRouter shardRouter, ScoreOutbox scoreOutbox) {
+        this.evidenceCatalog = evidenceCatalog;
+        this.startupReport = startupReport;
+        this.invalidationBus = invalidationBus;
+        this.caseProjector = caseProjector;
+        this.tracer = tracer;
+        this.slowQueryLog = slowQueryLog;
+        this.admissionLimiter = admissionLimiter;
+        this.idempotencyService = idempotencyService;
+        this.codecBenchmark = codecBenchmark;
+        this.caseArchiver = caseArchiver;
+        this.scoreReconciler = scoreReconciler;
+        this.activityFeed = activityFeed;
+        this.shardRouter = shardRouter;
+        this.scoreOutbox = scoreOutbox;
+    }
+
+    // 원본 증거 캐시 상태 (사건 수, 추정 메모리, 적중률)
+    @GetMapping("/evidence-cache")
+    public Map<String, Object> getEvidenceCacheStats() {
+        return evidenceCatalog.stats();
+    }
+
+    // 원본 증거 캐시 전체 무효화 (증거 일괄 적재 후 호출)
+    @DeleteMapping("/evidence-cache")
+    public Map<String, Object> clearEvidenceCache() {
+        evidenceCatalog.invalidateAll();
+        return evidenceCatalog.stats();
+    }
+
+    // 기동 시간 리포트 (AOT/CDS 적용 여부, 컨텍스트 기동 시간, 첫 요청까지 걸린 시간)
+    @GetMapping("/startup")
+    public Map<String, Object> getStartupReport() {
+        return startupReport.snapshot();
+    }
+
+    // 인스턴스 간 캐시 무효화 버스 상태 (리스너 연결 여부, 발행/수신 건수, 전체 비우기 횟수)
+    @GetMapping("/invalidation")
+    public Map<String, Object> getInvalidationStats() {
+        return invalidationBus.stats();
+    }
+
+    // 사건 이벤트 로그로 대시보드 프로젝션 재생성 (처리 건수, 소요 시간, 초당 이벤트 수)
+    @PostMapping("/projections/rebuild")
+    public Map<String, Object> rebuildProjections() {
+        return caseProjector.rebuild();
+    }
+
+    // 최근 요청 트레이스 중 minMs 이상 걸린 것 (느린 순, 스팬 트리 포함)
+    @GetMapping("/traces")
+    public List<Map<String, Object>> getTraces(@RequestParam(defaultValue = "0") long minMs,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        return tracer.traces(minMs, limit);
+    }
+
+    // 트레이싱 설정과 누적 기록 수
+    @GetMapping("/traces/stats")
+    public Map<String, Object> getTraceStats() {
+        return tracer.stats();
+    }
+
+    // 쿼리 형태별 집계 (sort: total | mean | count | max), 형태별 EXPLAIN (ANALYZE, BUFFERS) 표본 포함
+    @GetMapping("/slow-queries")
+    public List<Map<String, Object>> getSlowQuerySummary(@RequestParam(defaultValue = "total") String sort,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return slowQueryLog.summary(sort, limit);
+    }
+
+    // 기준 시간을 넘은 최근 문장 (바인드 파라미터 포함, 최신순)
+    @GetMapping("/slow-queries/recent")
+    public List<Map<String, Object>> getRecentSlowQueries() {
+        return slowQueryLog.recent();
+    }
+
+    @GetMapping("/slow-queries/stats")
+    public Map<String, Object> getSlowQueryStats() {
+        return slowQueryLog.stats();
+    }
+
+    // 집계 초기화 (인덱스 추가 등 조치 후 다시 측정할 때)
+    @DeleteMapping("/slow-queries")
+    public Map<String, Object> resetSlowQueries() {
+        slowQueryLog.reset();
+        return slowQueryLog.stats();
+    }
+
+    // 부하 제어 상태 (현재 한도, DB 지연, 우선순위/엔드포인트별 수락·거절 수)
+    @GetMapping("/admission")
+    public Map<String, Object> getAdmissionStats() {
+        return admissionLimiter.stats();
+    }
+
+    // Idempotency-Key 응답 캐시 (메모리/저장소 적중, 동시 중복 합류, 처리 중 충돌 수)
+    @GetMapping("/idempotency")
+    public Map<String, Object> getIdempotencyStats() {
+        return idempotencyService.stats();
+    }
+
+    // 응답 형식별 크기/직렬화 CPU 비교 (source: live | synthetic, rows 는 synthetic 행 수)
+    @GetMapping("/codec-benchmark")
+    public Map<String, Object> runCodecBenchmark(@RequestParam(defaultValue = "live") String source,
+                                                 @RequestParam(defaultValue = "500") int rows,
+                                                 @RequestParam(defaultValue = "200") int iterations) {
+        return codecBenchmark.run(source, rows, iterations);
+    }
+
+    // 끝난 사건 보관 작업 상태 (마지막 실행 결과 포함)
+    @GetMapping("/case-archive")
+    public Map<String, Object> getCaseArchiveStats() {
+        return caseArchiver.stats();
+    }
+
+    // 끝난 지 retentionDays 일(기본: 설정값)이 지난 사건을 지금 보관 테이블로 옮김
+    @PostMapping("/case-archive/run")
+    public Map<String, Object> runCaseArchive(@RequestParam(required = false) Integer retentionDays) {
+        return caseArchiver.archiveExpired(retentionDays);
+    }
+
+    // 점수 정합성 점검 상태 (마지막 실행 결과 포함)
+    @GetMapping("/score-reconcile")
+    public Map<String, Object> getScoreReconcileStats() {
+        return scoreReconciler.stats();
+    }
+
+    // app_user.score 와 score_log 원장 비교. full=true 면 체크포인트 무시, repair=true 면 점수를 원장에 맞춤
+    @PostMapping("/score-reconcile/run")
+    public Map<String, Object> runScoreReconcile(@RequestParam(defaultValue = "false") boolean full,
+                                                 @RequestParam(defaultValue = "false") boolean repair) {
+        return scoreReconciler.reconcile(full, repair);
+    }
+
+    // 활동 피드 상태 (메모리의 사용자 수, 저장 대기/완료/버린 항목 수)
+    @GetMapping("/feed")
+    public Map<String, Object> getFeedStats() {
+        return activityFeed.stats();
+    }
+
+    // 사건 샤딩 상태 (샤드 수, 샤드 트랜잭션/scatter 조회/전역 DB 쓰기 수)
+    @GetMapping("/sharding")
+    public Map<String, Object> getShardingStats() {
+        return shardRouter.stats();
+    }
+
+    // 점수 outbox 상태 (기록/반영/재시도/중복 건너뜀/실패 수, 샤드별 남은 행 수)
+    @GetMapping("/score-outbox")
+    public Map<String, Object> getScoreOutboxStats() {
+        return scoreOutbox.stats();
+    }
+
+    // 샤드에 남은 점수 outbox 를 지금 전역 DB 에 반영
+    @PostMapping("/score-outbox/drain")
+    public Map<String, Object> drainScoreOutbox() {
+        scoreOutbox.drainAll();
+        return scoreOutbox.stats();
+    }
+}
@@ -1,6 +1,7 @@
 package me.junyi.controller;
 
 import me.junyi.domain.AppUser;
+import me.junyi.service.IdempotencyService;
 import me.junyi.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,9 +12,11 @@ import java.util.Map;
 public class AppController {
 
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
-    public AppController(UserService userService) {
+    public AppController(UserService userService, IdempotencyService idempotencyService) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
     }
 
     // 1. 로그인 및 사용자 정보 조회
@@ -34,9 +37,14 @@ public class AppController {
     }
 
     // 2. 사건 의뢰 시작
-    // URL: POST /api/case/start
+    // URL: POST /api/case/start (Idempotency-Key 헤더가 있으면 재시도에 같은 응답을 돌려줌)
     @PostMapping("/case/start")
-    public ResponseEntity<?> startCase(@RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> startCase(@RequestBody Map<String, Long> request,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("case.start", idempotencyKey, request, () -> doStartCase(request));
+    }
+
+    private ResponseEntity<?> doStartCase(Map<String, Long> request) {
         Long clientId = request.get("clientId");
         Long caseId = request.get("caseId");
 
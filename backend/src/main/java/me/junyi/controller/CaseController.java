@@ -3,6 +3,8 @@ package me.junyi.controller;
 import me.junyi.domain.CaseInfo;
 import me.junyi.dto.*;
 import me.junyi.service.CaseService;
+import me.junyi.service.IdempotencyService;
+import me.junyi.service.PoliceBulkService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,9 +17,14 @@ import java.util.Map;
 public class CaseController {
 
     private final CaseService caseService;
+    private final PoliceBulkService policeBulkService;
+    private final IdempotencyService idempotencyService;
 
-    public CaseController(CaseService caseService) {
+    public CaseController(CaseService caseService, PoliceBulkService policeBulkService,
+                          IdempotencyService idempotencyService) {
         this.caseService = caseService;
+        this.policeBulkService = policeBulkService;
+        this.idempotencyService = idempotencyService;
     }
 
     // 1. 등록 상태 사건 목록
@@ -34,7 +41,12 @@ public class CaseController {
 
     // 3. 범인 - 증거 조작 API
     @PostMapping("/fabricate")
-    public ResponseEntity<?> fabricateEvidence(@RequestBody Map<String, Object> request) {
+    public ResponseEntity<?> fabricateEvidence(@RequestBody Map<String, Object> request,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("cases.fabricate", idempotencyKey, request, () -> doFabricateEvidence(request));
+    }
+
+    private ResponseEntity<?> doFabricateEvidence(Map<String, Object> request) {
 
         Long caseId = ((Number) request.get("caseId")).longValue();
         Long criminalId = ((Number) request.get("criminalId")).longValue();
@@ -63,7 +75,12 @@ public class CaseController {
 
     // 4. 경찰 - 탐정 배정
     @PostMapping("/assign")
-    public ResponseEntity<?> assignDetective(@RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> assignDetective(@RequestBody Map<String, Long> request,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("cases.assign", idempotencyKey, request, () -> doAssignDetective(request));
+    }
+
+    private ResponseEntity<?> doAssignDetective(Map<String, Long> request) {
         Long caseId = request.get("caseId");
         Long policeId = request.get("policeId");
         Long detectiveId = request.get("detectiveId");
@@ -109,7 +126,12 @@ public class CaseController {
     }
 
     @PostMapping("/culprit/join")
-    public ResponseEntity<?> joinCaseAsCulprit(@RequestBody Map<String, Long> request) {
+    public ResponseEntity<?> joinCaseAsCulprit(@RequestBody Map<String, Long> request,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("cases.culprit.join", idempotencyKey, request, () -> doJoinCaseAsCulprit(request));
+    }
+
+    private ResponseEntity<?> doJoinCaseAsCulprit(Map<String, Long> request) {
         Long caseId = request.get("caseId");
         Long culpritId = request.get("culpritId");
 
@@ -144,6 +166,30 @@ public class CaseController {
         }
     }
 
+    // 경찰 - 일괄 접수 (요청 전체를 한 트랜잭션으로, 항목별 결과 반환)
+    @PostMapping("/police/accept/bulk")
+    public ResponseEntity<?> acceptCases(@RequestBody BulkPoliceRequest request) {
+        try {
+            return ResponseEntity.ok(policeBulkService.acceptAll(request.getPoliceId(), request.getCaseIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 경찰 - 일괄 탐정 배정
+    @PostMapping("/assign/bulk")
+    public ResponseEntity<?> assignDetectives(@RequestBody BulkPoliceRequest request) {
+        try {
+            return ResponseEntity.ok(policeBulkService.assignAll(request.getPoliceId(), request.getAssignments()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/detective/{userId}")
     public List<CaseDetectiveDto> getAssignedCasesForDetective(@PathVariable Long userId) {
         return caseService.getAssignedCasesByDetectiveId(userId);
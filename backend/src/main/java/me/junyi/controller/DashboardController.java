@@ -0,0 +1,37 @@
+package me.junyi.controller;
+
+import me.junyi.domain.Role;
+import me.junyi.dto.DashboardDto;
+import me.junyi.service.DashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // 역할별 대시보드 목록을 한 번에 조회
+    // URL: GET /api/dashboard/{role}/{userId}  (role: client, culprit, police, detective 또는 한글 역할명)
+    @GetMapping("/{role}/{userId}")
+    public ResponseEntity<?> getDashboard(@PathVariable String role, @PathVariable Long userId) {
+        Role parsed;
+        try {
+            parsed = Role.valueOf(role.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            try {
+                parsed = Role.fromLabel(role);
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest().body(Map.of("error", "알 수 없는 역할입니다: " + role));
+            }
+        }
+        return ResponseEntity.ok(dashboardService.getDashboard(parsed, userId));
+    }
+}
@@ -0,0 +1,86 @@
+package me.junyi.controller;
+
+import me.junyi.service.ExportService;
+import me.junyi.service.ExportService.Dataset;
+import me.junyi.service.ExportService.Format;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // 테이블 스트리밍 내보내기 (chunked 응답). 예: /api/export/score_log?format=csv&from=2025-03-01T00:00:00&gzip=true
+    @GetMapping("/{dataset}")
+    public ResponseEntity<?> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        Dataset ds;
+        Format fmt;
+        try {
+            ds = Dataset.parse(dataset);
+            fmt = Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "지원하지 않는 대상 또는 형식입니다: " + dataset + ", " + format));
+        }
+
+        if ((from != null || to != null) && !exportService.supportsPeriod(ds)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "사건 샤딩 중에는 사건 테이블을 기간으로 내보낼 수 없습니다."));
+        }
+
+        ExportService.Job job = exportService.start(ds, fmt);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+                exportService.run(job, zip, from, to);
+                zip.finish();
+            } else {
+                exportService.run(job, out, from, to);
+            }
+        };
+
+        // gzip 은 .gz 파일 자체로 내려줌 (Content-Encoding 을 붙이면 클라이언트가 풀어서 .gz 이름에 평문이 저장됨)
+        String filename = ds.name().toLowerCase() + fmt.extension() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(fmt.contentType() + ";charset=UTF-8");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header("X-Export-Id", String.valueOf(job.id()))
+                .body(body);
+    }
+
+    // 진행 중인 내보내기 (행 수, 초당 행 수)
+    @GetMapping("/jobs")
+    public List<Map<String, Object>> getRunningJobs() {
+        return exportService.runningJobs();
+    }
+
+    // 내보내기 취소
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        if (!exportService.cancel(id)) {
+            return ResponseEntity.status(404).body(Map.of("error", "진행 중인 내보내기가 없습니다: " + id));
+        }
+        return ResponseEntity.ok(Map.of("cancelled", id));
+    }
+}
@@ -0,0 +1,26 @@
+package me.junyi.controller;
+
+import me.junyi.dto.ActivityFeedEntryDto;
+import me.junyi.service.ActivityFeed;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    private final ActivityFeed activityFeed;
+
+    public FeedController(ActivityFeed activityFeed) {
+        this.activityFeed = activityFeed;
+    }
+
+    // 내 사건 활동 (최신순). 다음 페이지는 마지막 항목의 eventId 를 before 로 전달
+    @GetMapping("/{userId}")
+    public List<ActivityFeedEntryDto> getFeed(@PathVariable Long userId,
+                                              @RequestParam(required = false) Long before,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return activityFeed.page(userId, before, size);
+    }
+}
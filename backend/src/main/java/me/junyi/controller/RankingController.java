@@ -1,51 +1,42 @@
 package me.junyi.controller;
 
-import org.springframework.jdbc.core.JdbcTemplate;
+import me.junyi.domain.ScoreLog;
+import me.junyi.dto.DetectiveRankingDto;
+import me.junyi.service.RankingService;
+import me.junyi.service.ScoreHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ranking")
 public class RankingController {
 
-    private final JdbcTemplate jdbcTemplate;
+    private final RankingService rankingService;
+    private final ScoreHistoryService scoreHistoryService;
 
-    public RankingController(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    public RankingController(RankingService rankingService, ScoreHistoryService scoreHistoryService) {
+        this.rankingService = rankingService;
+        this.scoreHistoryService = scoreHistoryService;
     }
 
     // 🚨 탐정 목록 조회 (탐정 랭킹)
     @GetMapping("/detectives")
-    public List<Map<String, Object>> getDetectives() {
-
-        String sql = """
-            SELECT 
-                u.user_id AS "userId",
-                u.nickname AS "nickname",
-                u.score AS "score",
-                COUNT(p.part_id) AS "totalCases",
-                COALESCE(
-                    AVG(CASE WHEN p.is_solved = TRUE THEN 1 ELSE 0 END) * 100,
-                    0
-                ) AS "successRate"
-            FROM app_user u
-            LEFT JOIN case_participation p
-                ON u.user_id = p.detective_id
-            WHERE u.role = '탐정'
-            GROUP BY u.user_id, u.nickname, u.score
-            ORDER BY u.score DESC;
-        """;
-
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(sql);
-
-        // 순위 계산
-        int rank = 1;
-        for (Map<String, Object> row : list) {
-            row.put("rank", rank++);
-        }
-
-        return list;
+    public List<DetectiveRankingDto> getDetectives() {
+        return rankingService.getDetectives();
+    }
+
+    // 사용자 점수 내역 조회 (기본: 최근 1년, 아카이브된 기간도 포함)
+    @GetMapping("/history/{userId}")
+    public List<ScoreLog> getScoreHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusSeconds(1);
+        LocalDateTime start = from != null ? from : end.minusYears(1);
+        return scoreHistoryService.getHistory(userId, start, end);
     }
 }
@@ -12,6 +12,6 @@ public class AppUser {
     private Long userId;
 
     private String nickname;
-    private String role;
+    private Role role;
     private Integer score;
 }
\ No newline at end of file
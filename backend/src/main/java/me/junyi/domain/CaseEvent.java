@@ -0,0 +1,26 @@
+package me.junyi.domain;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@Table("case_event")
+public class CaseEvent {
+
+    @Id
+    private Long eventId;
+
+    private Long caseId;
+    private CaseEventType eventType;
+    private Long actorId;   // 행동한 사용자
+    private Long subjectId; // 대상 (배정된 탐정, 지목한 용의자, 참여 ID 등) - NULL 허용
+    private Boolean flag;   // 추리 성공 여부 등 - NULL 허용
+
+    @Builder.Default
+    private LocalDateTime occurredAt = LocalDateTime.now();
+}
@@ -0,0 +1,27 @@
+package me.junyi.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 사건 워크플로우 이벤트 종류. DB에는 smallint 코드로 저장됩니다.
+@Getter
+@RequiredArgsConstructor
+public enum CaseEventType {
+    CLIENT_STARTED((short) 0),      // 의뢰인 사건 의뢰 (actor=의뢰인, subject=part_id)
+    CULPRIT_JOINED((short) 1),      // 범인 참여 (actor=범인)
+    FABRICATED((short) 2),          // 증거 조작 완료 (actor=범인)
+    POLICE_ACCEPTED((short) 3),     // 경찰 접수 (actor=경찰)
+    DETECTIVE_ASSIGNED((short) 4),  // 탐정 배정 (actor=경찰, subject=탐정)
+    VERDICT((short) 5);             // 탐정 추리 결과 (actor=탐정, subject=지목한 용의자, flag=해결 여부)
+
+    private static final CaseEventType[] BY_CODE = values();
+
+    private final short code;
+
+    public static CaseEventType fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("알 수 없는 사건 이벤트 코드: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
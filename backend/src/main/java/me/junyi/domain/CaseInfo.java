@@ -15,5 +15,5 @@ public class CaseInfo {
     private String content;
     private Integer difficulty;
     private Long trueCriminalId;
-    private String status; // '등록', '조작', '배정' 등 워크플로우 상태
+    private CaseStatus status; // '등록', '조작', '배정' 등 워크플로우 상태 (DB: smallint 코드)
 }
\ No newline at end of file
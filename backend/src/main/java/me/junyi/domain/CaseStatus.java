@@ -0,0 +1,40 @@
+package me.junyi.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 사건 워크플로우 상태. DB에는 smallint 코드로, JSON에는 한글 라벨로 표현됩니다.
+@Getter
+@RequiredArgsConstructor
+public enum CaseStatus {
+    REGISTERED((short) 0, "등록"),
+    FABRICATED((short) 1, "조작"),
+    RECEIVED((short) 2, "접수중"),
+    ASSIGNED((short) 3, "배정"),
+    DEDUCED((short) 4, "추리 완료"),
+    CLOSED((short) 5, "결과 확인");
+
+    private static final CaseStatus[] BY_CODE = values();
+
+    private final short code;
+
+    @JsonValue
+    private final String label;
+
+    public static CaseStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("알 수 없는 사건 상태 코드: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    @JsonCreator
+    public static CaseStatus fromLabel(String label) {
+        for (CaseStatus status : BY_CODE) {
+            if (status.label.equals(label)) return status;
+        }
+        throw new IllegalArgumentException("알 수 없는 사건 상태: " + label);
+    }
+}
@@ -0,0 +1,38 @@
+package me.junyi.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 사용자 역할. DB에는 smallint 코드로, JSON에는 한글 라벨로 표현됩니다.
+@Getter
+@RequiredArgsConstructor
+public enum Role {
+    CLIENT((short) 0, "의뢰인"),
+    CULPRIT((short) 1, "범인"),
+    POLICE((short) 2, "경찰"),
+    DETECTIVE((short) 3, "탐정");
+
+    private static final Role[] BY_CODE = values();
+
+    private final short code;
+
+    @JsonValue
+    private final String label;
+
+    public static Role fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("알 수 없는 역할 코드: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    @JsonCreator
+    public static Role fromLabel(String label) {
+        for (Role role : BY_CODE) {
+            if (role.label.equals(label)) return role;
+        }
+        throw new IllegalArgumentException("알 수 없는 역할: " + label);
+    }
+}
@@ -0,0 +1,17 @@
+package me.junyi.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import me.junyi.domain.CaseEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ActivityFeedEntryDto {
+    private Long eventId;        // 다음 페이지 요청의 before 로 사용
+    private Long caseId;
+    private CaseEventType eventType;
+    private Long actorId;
+    private LocalDateTime occurredAt;
+}
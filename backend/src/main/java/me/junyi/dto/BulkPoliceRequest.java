@@ -0,0 +1,19 @@
+package me.junyi.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// 경찰 일괄 처리 요청 (접수: caseIds, 배정: assignments)
+@Data
+public class BulkPoliceRequest {
+    private Long policeId;
+    private List<Long> caseIds;
+    private List<Assignment> assignments;
+
+    @Data
+    public static class Assignment {
+        private Long caseId;
+        private Long detectiveId;
+    }
+}
@@ -0,0 +1,28 @@
+package me.junyi.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import me.junyi.domain.CaseStatus;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkResultDto {
+    private Integer requested;
+    private Integer succeeded;
+    private Integer failed;
+    private Long elapsedMs;
+
+    // 요청 순서대로 항목별 결과
+    private List<Item> results;
+
+    @Data
+    @Builder
+    public static class Item {
+        private Long caseId;
+        private Boolean success;
+        private CaseStatus newStatus; // 성공 시 변경된 상태
+        private String error;         // 실패 사유
+    }
+}
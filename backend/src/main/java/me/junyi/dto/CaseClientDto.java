@@ -3,6 +3,7 @@ package me.junyi.dto;
 // Lombok 사용을 가정하여 @Getter, @Setter, @Builder, @NoArgsConstructor, @AllArgsConstructor를 추가합니다.
 
 import lombok.*;
+import me.junyi.domain.CaseStatus;
 
 @Getter
 @Setter
@@ -25,6 +26,6 @@ public class CaseClientDto {
     private String detectiveNickname; // 배정된 탐정의 닉네임
 
     // 5. 사건 진행 상태 및 결과
-    private String status;         // '등록', '조작', '배정', '추리 완료', '결과 확인'
+    private CaseStatus status;         // '등록', '조작', '배정', '추리 완료', '결과 확인'
     private String result;         // '감사' (해결) 또는 '부고' (미해결)
 }
\ No newline at end of file
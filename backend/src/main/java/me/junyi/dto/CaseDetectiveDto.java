@@ -4,6 +4,7 @@ package me.junyi.dto;
 // 만약 Lombok을 사용하지 않는다면, 생성자와 Getter/Setter 메서드를 수동으로 정의해야 합니다.
 
 import lombok.*;
+import me.junyi.domain.CaseStatus;
 
 @Getter
 @Setter
@@ -27,7 +28,7 @@ public class CaseDetectiveDto {
     private String policeNickname;
 
     // 5. 탐정의 추리 및 결과
-    private String status;         // '배정', '추리 완료', '결과 확인'
+    private CaseStatus status;         // '배정', '추리 완료', '결과 확인'
     private String culpritGuess;   // 탐정의 추리 결과 (용의자 닉네임)
     private String actualCulprit;  // 실제 범인 (결과 확인 시 필요)
     private String result;         // '감사' (성공) 또는 '부고' (실패)
@@ -0,0 +1,25 @@
+package me.junyi.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import me.junyi.domain.Role;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class DashboardDto {
+    private Role role;
+    private Long userId;
+
+    // 섹션 이름 -> 목록 (시간 초과/실패한 섹션은 빠짐)
+    private Map<String, Object> sections;
+
+    // 부분 응답 여부와 그 이유
+    private Boolean partial;
+    private List<String> timedOut;
+    private Map<String, String> failed;
+
+    private Long elapsedMs;
+}
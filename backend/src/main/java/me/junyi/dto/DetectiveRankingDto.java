@@ -0,0 +1,15 @@
+package me.junyi.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DetectiveRankingDto {
+    private Long userId;
+    private String nickname;
+    private Integer score;
+    private Long totalCases;
+    private Double successRate;  // 해결 비율 (0 ~ 100)
+    private Integer rank;
+}
@@ -2,6 +2,7 @@ package me.junyi.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import me.junyi.domain.CaseStatus;
 
 
 @Data
@@ -14,7 +15,7 @@ public class MyCaseDto {
     private String clientNickname;
     private Integer difficulty;
 
-    private String status;
+    private CaseStatus status;
     private Boolean fakeEvidenceSelected;
 }
 
@@ -1,6 +1,8 @@
 package me.junyi.dto;
+
 import lombok.Builder;
 import lombok.Data;
+import me.junyi.domain.CaseStatus;
 
 @Data
 @Builder
@@ -11,6 +13,6 @@ public class PendingCaseDto {
     private String caseDescription;
     private String clientNickname;
     private String culpritNickname;
-    private String status;
+    private CaseStatus status;
     private Integer difficulty;
 }
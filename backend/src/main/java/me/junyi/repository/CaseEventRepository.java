@@ -0,0 +1,8 @@
+package me.junyi.repository;
+
+import me.junyi.domain.CaseEvent;
+import org.springframework.data.repository.CrudRepository;
+
+// 사건 이벤트 로그 리포지토리 (추가 전용)
+public interface CaseEventRepository extends CrudRepository<CaseEvent, Long> {
+}
@@ -7,7 +7,7 @@ import java.util.Optional;
 
 // 2. 사건 정보 리포지토리
 public interface CaseInfoRepository extends CrudRepository<CaseInfo, Long> {
-    List<CaseInfo> findAllByStatus(String status);
+    List<CaseInfo> findAllByStatus(CaseStatus status);
     Optional<CaseInfo> findByTitle(String title);
-    List<CaseInfo> findAllByStatusIn(List<String> statuses);
+    List<CaseInfo> findAllByStatusIn(List<CaseStatus> statuses);
 }
\ No newline at end of file
@@ -0,0 +1,458 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseEvent;
+import me.junyi.domain.CaseEventType;
+import me.junyi.dto.ActivityFeedEntryDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사용자별 활동 피드 ("내 사건에 무슨 일이 있었나").
+ *
+ * - 쓰기 시 분배(fan-out-on-write): CaseEventStore 가 이벤트를 추가할 때마다 그 사건의 의뢰인/범인/경찰/탐정에게
+ *   항목을 하나씩 나눠 줍니다. 관련자는 같은 트랜잭션에서 방금 갱신된 case_projection 한 행에서 읽습니다.
+ *   메모리 반영은 커밋 후에만 하므로 롤백된 전이는 피드에 나오지 않습니다.
+ * - 저장: 사용자마다 eventId 순으로 정렬된 고정 크기 링 버퍼(long 배열, 항목당 4칸)이며 가득 차면 가장 오래된 항목을 버립니다.
+ *   조회는 이진 탐색 + 페이지 크기만큼 복사라서 조인도 DB 접근도 없습니다.
+ * - 영속화: 새 항목은 primitive 배열 대기열에 쌓였다가 flushIntervalMs 마다 JDBC 배치 한 번으로 activity_feed 에 들어갑니다.
+ *   재시작 직후나 메모리에서 밀려난 사용자는 첫 조회 때 이 테이블에서 최근 capacity 건을 읽어 링을 다시 채웁니다.
+ *   (대기열에 있던 항목은 프로세스가 비정상 종료되면 잃을 수 있음 - 피드는 파생 데이터이므로 허용)
+ * - 여러 인스턴스: 배치를 쓴 트랜잭션에서 FEED 무효화를 발행하고, 다른 인스턴스는 해당 사용자의 링을 다음 조회 때 다시 채웁니다.
+ * 스키마는 database/migration/007_activity_feed.sql 참고.
+ */
+@Component
+public class ActivityFeed implements InvalidatableCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityFeed.class);
+
+    private static final String RECIPIENTS_SQL = """
+            SELECT case_id, client_id, criminal_id, police_id, detective_id
+            FROM %s WHERE case_id = ANY (?)
+            """.formatted(CaseProjector.TABLE);
+
+    private static final String LOAD_SQL = """
+            SELECT event_id, case_id, actor_id, event_type, occurred_at
+            FROM activity_feed WHERE user_id = ?
+            ORDER BY event_id DESC
+            LIMIT ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO activity_feed (user_id, event_id, case_id, actor_id, event_type, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    // 사용자마다 최근 capacity 건만 남김
+    private static final String PURGE_SQL = """
+            DELETE FROM activity_feed f
+            USING (SELECT user_id, event_id,
+                          row_number() OVER (PARTITION BY user_id ORDER BY event_id DESC) AS rn
+                   FROM activity_feed) old
+            WHERE old.rn > ? AND f.user_id = old.user_id AND f.event_id = old.event_id
+            """;
+
+    // 대기열 항목 한 개 = long 5칸
+    private static final int PENDING_STRIDE = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<CacheInvalidationBus> invalidationBus; // 버스가 캐시 목록으로 이 빈을 받으므로 지연 조회
+    private final int capacity;
+    private final int maxUsers;
+    private final int maxPending;
+
+    private final Map<Long, FeedRing> rings = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private long[] pending;
+    private int pendingCount;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ActivityFeed(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        ObjectProvider<CacheInvalidationBus> invalidationBus,
+                        @Value("${dbterm.feed.capacity:50}") int capacity,
+                        @Value("${dbterm.feed.max-users:100000}") int maxUsers,
+                        @Value("${dbterm.feed.max-pending:100000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.invalidationBus = invalidationBus;
+        this.capacity = capacity;
+        this.maxUsers = maxUsers;
+        this.maxPending = maxPending;
+        this.pending = new long[1024 * PENDING_STRIDE];
+    }
+
+    /** 이벤트들을 관련자 피드에 분배 (현재 트랜잭션 안에서 호출, 메모리 반영은 커밋 후) */
+    public void record(List<CaseEvent> events) {
+        if (events.isEmpty()) return;
+        Long[] caseIds = events.stream().map(CaseEvent::getCaseId).distinct().toArray(Long[]::new);
+        Map<Long, long[]> participants = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RECIPIENTS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", caseIds));
+            return ps;
+        }, rs -> {
+            participants.put(rs.getLong("case_id"), new long[]{
+                    rs.getLong("client_id"), rs.getLong("criminal_id"),
+                    rs.getLong("police_id"), rs.getLong("detective_id")});
+        });
+
+        long[] entries = new long[events.size() * 4 * PENDING_STRIDE];
+        int count = 0;
+        for (CaseEvent event : events) {
+            long[] users = participants.get(event.getCaseId());
+            if (users == null) continue;
+            long at = Timestamp.valueOf(event.getOccurredAt()).getTime();
+            long actorType = pack(event.getActorId(), event.getEventType());
+            for (int i = 0; i < users.length; i++) {
+                if (users[i] == 0 || contains(users, i, users[i])) continue; // NULL 이거나 이미 받은 사용자
+                int o = count++ * PENDING_STRIDE;
+                entries[o] = users[i];
+                entries[o + 1] = event.getEventId();
+                entries[o + 2] = at;
+                entries[o + 3] = event.getCaseId();
+                entries[o + 4] = actorType;
+            }
+        }
+        if (count == 0) return;
+
+        int total = count;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(entries, total);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(entries, total);
+            }
+        });
+    }
+
+    // 링에 넣고 영속화 대기열에 추가
+    private void deliver(long[] entries, int count) {
+        for (int n = 0; n < count; n++) {
+            int o = n * PENDING_STRIDE;
+            long userId = entries[o];
+            while (true) {
+                FeedRing ring = rings.computeIfAbsent(userId, id -> new FeedRing(capacity));
+                synchronized (ring) {
+                    if (ring.evicted) continue; // 방금 밀려난 링이면 새 링으로 다시
+                    ring.insert(entries[o + 1], entries[o + 2], entries[o + 3], entries[o + 4]);
+                    ring.unflushed++;
+                    break;
+                }
+            }
+        }
+        recorded.add(count);
+
+        synchronized (pendingLock) {
+            int room = maxPending - pendingCount;
+            int accepted = Math.min(count, Math.max(room, 0));
+            if (accepted < count) {
+                dropped.add(count - accepted);
+                for (int n = accepted; n < count; n++) markFlushed(entries[n * PENDING_STRIDE]);
+            }
+            int needed = (pendingCount + accepted) * PENDING_STRIDE;
+            if (needed > pending.length) pending = Arrays.copyOf(pending, Math.max(needed, pending.length * 2));
+            System.arraycopy(entries, 0, pending, pendingCount * PENDING_STRIDE, accepted * PENDING_STRIDE);
+            pendingCount += accepted;
+        }
+    }
+
+    /** 최근 항목부터 size 건. before 가 있으면 그 eventId 보다 이전 항목만 */
+    public List<ActivityFeedEntryDto> page(long userId, Long before, int size) {
+        int limit = Math.max(1, Math.min(size, capacity));
+        reads.increment();
+        while (true) {
+            FeedRing ring = rings.computeIfAbsent(userId, id -> new FeedRing(capacity));
+            synchronized (ring) {
+                if (ring.evicted) continue;
+                if (!ring.loaded || ring.stale) load(userId, ring);
+                ring.lastAccess = System.currentTimeMillis();
+                return ring.page(before != null ? before : Long.MAX_VALUE, limit);
+            }
+        }
+    }
+
+    // activity_feed 의 최근 capacity 건을 링에 합침 (이미 있는 eventId 는 건너뜀). 링 잠금 안에서 호출
+    private void load(long userId, FeedRing ring) {
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            ring.insert(rs.getLong("event_id"), rs.getTimestamp("occurred_at").getTime(), rs.getLong("case_id"),
+                    pack(rs.getObject("actor_id") == null ? null : rs.getLong("actor_id"),
+                            CaseEventType.fromCode(rs.getShort("event_type"))));
+        }, userId, capacity);
+        ring.loaded = true;
+        ring.stale = false;
+        loads.increment();
+    }
+
+    /** 대기열을 JDBC 배치 한 번으로 저장하고 다른 인스턴스에 알림 */
+    @Scheduled(fixedDelayString = "${dbterm.feed.flush-interval-ms:500}")
+    public synchronized void flush() {
+        long[] batch;
+        int count;
+        synchronized (pendingLock) {
+            if (pendingCount == 0) {
+                evictIfNeeded();
+                return;
+            }
+            batch = pending;
+            count = pendingCount;
+            pending = new long[Math.max(1024, count) * PENDING_STRIDE];
+            pendingCount = 0;
+        }
+
+        Set<Long> users = new LinkedHashSet<>();
+        for (int n = 0; n < count; n++) users.add(batch[n * PENDING_STRIDE]);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        int o = i * PENDING_STRIDE;
+                        long actor = batch[o + 4] >> 8;
+                        ps.setLong(1, batch[o]);
+                        ps.setLong(2, batch[o + 1]);
+                        ps.setLong(3, batch[o + 3]);
+                        ps.setObject(4, actor < 0 ? null : actor, Types.BIGINT);
+                        ps.setShort(5, (short) (batch[o + 4] & 0xFF));
+                        ps.setTimestamp(6, new Timestamp(batch[o + 2]));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return count;
+                    }
+                });
+                CacheInvalidationBus bus = invalidationBus.getIfAvailable();
+                if (bus != null) users.forEach(userId -> bus.publish(EntityType.FEED, userId));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Activity feed flush failed ({} entries), will retry", count, e);
+            requeue(batch, count);
+            return;
+        }
+
+        for (int n = 0; n < count; n++) markFlushed(batch[n * PENDING_STRIDE]);
+        flushed.add(count);
+        evictIfNeeded();
+    }
+
+    // 실패한 배치를 대기열 앞에 되돌림 (한도를 넘는 만큼은 버림)
+    private void requeue(long[] batch, int count) {
+        synchronized (pendingLock) {
+            int keep = Math.min(count, Math.max(maxPending - pendingCount, 0));
+            for (int n = keep; n < count; n++) markFlushed(batch[n * PENDING_STRIDE]);
+            dropped.add(count - keep);
+            long[] merged = new long[Math.max(1024, keep + pendingCount) * PENDING_STRIDE];
+            System.arraycopy(batch, 0, merged, 0, keep * PENDING_STRIDE);
+            System.arraycopy(pending, 0, merged, keep * PENDING_STRIDE, pendingCount * PENDING_STRIDE);
+            pending = merged;
+            pendingCount += keep;
+        }
+    }
+
+    private void markFlushed(long userId) {
+        FeedRing ring = rings.get(userId);
+        if (ring == null) return;
+        synchronized (ring) {
+            if (ring.unflushed > 0) ring.unflushed--;
+        }
+    }
+
+    // 사용자 수가 한도를 넘으면 저장이 끝났고 오래 조회되지 않은 링부터 메모리에서 내림
+    private void evictIfNeeded() {
+        int excess = rings.size() - maxUsers;
+        if (excess <= 0) return;
+        List<Map.Entry<Long, FeedRing>> idle = new ArrayList<>();
+        for (Map.Entry<Long, FeedRing> entry : rings.entrySet()) {
+            if (entry.getValue().unflushed == 0) idle.add(entry);
+        }
+        idle.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        for (Map.Entry<Long, FeedRing> entry : idle) {
+            if (excess <= 0) break;
+            FeedRing ring = entry.getValue();
+            synchronized (ring) {
+                if (ring.unflushed != 0) continue;
+                ring.evicted = true;
+                rings.remove(entry.getKey(), ring);
+            }
+            evicted.increment();
+            excess--;
+        }
+    }
+
+    @Scheduled(cron = "${dbterm.feed.purge-cron:0 15 4 * * *}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, capacity);
+        log.info("Activity feed purge removed {} rows", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Activity feed final flush failed", e);
+        }
+    }
+
+    // 자기 flush 가 발행한 통지는 이미 링에 있는 항목이므로 무시
+    @Override
+    public boolean invalidateOwnWrites() {
+        return false;
+    }
+
+    @Override
+    public void invalidate(EntityType type, long id) {
+        if (type != EntityType.FEED) return;
+        FeedRing ring = rings.get(id);
+        if (ring != null) ring.stale = true;
+    }
+
+    @Override
+    public void invalidateAll() {
+        rings.values().forEach(ring -> ring.stale = true);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("users", rings.size());
+        stats.put("maxUsers", maxUsers);
+        stats.put("estimatedBytes", (long) rings.size() * (capacity * FeedRing.STRIDE * Long.BYTES + 64));
+        synchronized (pendingLock) {
+            stats.put("pending", pendingCount);
+        }
+        stats.put("recorded", recorded.sum());
+        stats.put("flushed", flushed.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("reads", reads.sum());
+        stats.put("loads", loads.sum());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+
+    // 행위자 id 와 이벤트 코드를 long 하나로 (행위자 없음 = -1)
+    private static long pack(Long actorId, CaseEventType type) {
+        return ((actorId == null ? -1L : actorId) << 8) | type.getCode();
+    }
+
+    private static boolean contains(long[] values, int length, long value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 사용자 한 명의 피드. eventId 오름차순으로 정렬된 원형 버퍼이며 항목당 long 4칸
+     * [eventId, occurredAt(epoch ms), caseId, actorId << 8 | eventType]. 링 객체로 동기화해서 씀.
+     */
+    static final class FeedRing {
+        static final int STRIDE = 4;
+
+        private final long[] slots;
+        private final int capacity;
+        private int start; // 가장 오래된 항목
+        private int size;
+
+        int unflushed;
+        boolean loaded;
+        boolean evicted;
+        volatile boolean stale;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        FeedRing(int capacity) {
+            this.capacity = capacity;
+            this.slots = new long[capacity * STRIDE];
+        }
+
+        // i 번째로 오래된 항목의 시작 위치
+        private int slot(int i) {
+            return ((start + i) % capacity) * STRIDE;
+        }
+
+        private long eventId(int i) {
+            return slots[slot(i)];
+        }
+
+        /** 정렬 위치에 넣음. 이미 있거나, 가득 찼는데 가장 오래된 항목보다 오래되었으면 넣지 않음 */
+        boolean insert(long eventId, long at, long caseId, long actorType) {
+            int i = size;
+            while (i > 0 && eventId(i - 1) > eventId) i--; // 보통 커밋 순서 = eventId 순서라 바로 멈춤
+            if (i > 0 && eventId(i - 1) == eventId) return false;
+            if (size == capacity) {
+                if (i == 0) return false;
+                start = (start + 1) % capacity;
+                size--;
+                i--;
+            }
+            for (int j = size; j > i; j--) System.arraycopy(slots, slot(j - 1), slots, slot(j), STRIDE);
+            int o = slot(i);
+            slots[o] = eventId;
+            slots[o + 1] = at;
+            slots[o + 2] = caseId;
+            slots[o + 3] = actorType;
+            size++;
+            return true;
+        }
+
+        /** eventId < before 인 항목 중 최신 limit 건 (최신순) */
+        List<ActivityFeedEntryDto> page(long before, int limit) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (eventId(mid) < before) lo = mid + 1;
+                else hi = mid;
+            }
+            List<ActivityFeedEntryDto> result = new ArrayList<>(Math.min(limit, lo));
+            for (int i = lo - 1; i >= 0 && result.size() < limit; i--) {
+                int o = slot(i);
+                long actor = slots[o + 3] >> 8;
+                result.add(ActivityFeedEntryDto.builder()
+                        .eventId(slots[o])
+                        .occurredAt(new Timestamp(slots[o + 1]).toLocalDateTime())
+                        .caseId(slots[o + 2])
+                        .actorId(actor < 0 ? null : actor)
+                        .eventType(CaseEventType.fromCode((short) (slots[o + 3] & 0xFF)))
+                        .build());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package me.junyi.service;
+
+import me.junyi.config.ShardRoutingDataSource;
+import me.junyi.service.InvalidatableCache.EntityType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY 기반 인스턴스 간 캐시 무효화 버스.
+ *
+ * - publish(): 트랜잭션 안에서 변경된 엔티티를 모아 두었다가 커밋 직전에 pg_notify 를 한 번만 호출합니다.
+ *   NOTIFY 는 커밋될 때만 전달되므로 롤백된 변경은 통지되지 않습니다. 자기 노드의 캐시는 커밋 직후 바로 비웁니다
+ *   (쓴 쪽이 이미 최신 상태를 들고 있는 캐시는 invalidateOwnWrites()=false 로 빠짐).
+ *   사건 샤드 트랜잭션(ShardRouter)에서 발행하면 리스너가 있는 전역 DB 로 보내야 하므로, 샤드가 커밋된 뒤 전역 DB 에서 NOTIFY 합니다.
+ * - 리스너: 커넥션 풀과 별도의 전용 커넥션으로 LISTEN 하며, 짧은 구간의 통지를 모아서(coalesce) 한 번에 적용합니다.
+ *   통지마다 보낸 인스턴스(nodeId)가 붙어 있어서 자기가 보낸 통지는 커밋 직후 이미 반영했으므로 건너뜁니다.
+ *   연결이 끊겼다가 다시 붙으면 그 사이 통지를 놓쳤을 수 있으므로 모든 캐시를 비웁니다.
+ *
+ * 통지 형식: "<nodeId>|U1,2|C3" (전체 비우기는 "<nodeId>|*")
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final String CHANNEL = "dbterm_invalidation";
+    private static final int MAX_PAYLOAD = 7900; // NOTIFY payload 한도 8000 bytes
+    private static final long RECONNECT_BACKOFF_MS = 2000;
+    private static final long VALIDATION_INTERVAL_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final DataSourceProperties dataSourceProperties;
+    private final List<InvalidatableCache> caches;
+    private final boolean enabled;
+    private final long coalesceMs;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder fullFlushes = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, DataSourceProperties dataSourceProperties,
+                                List<InvalidatableCache> caches,
+                                @Value("${dbterm.invalidation.enabled:true}") boolean enabled,
+                                @Value("${dbterm.invalidation.coalesce-ms:50}") long coalesceMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.dataSourceProperties = dataSourceProperties;
+        this.caches = caches;
+        this.enabled = enabled;
+        this.coalesceMs = coalesceMs;
+    }
+
+    /** 엔티티 변경 알림 (트랜잭션 안이면 커밋 시 한 번에 발행) */
+    public void publish(EntityType type, long id) {
+        boolean onShard = ShardRoutingDataSource.currentShard() != null;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Changes changes = new Changes(nodeId);
+            changes.add(type, id);
+            if (onShard) shardRouter.runGlobal(() -> send(changes));
+            else send(changes);
+            applyLocally(changes);
+            return;
+        }
+
+        Changes pending = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Changes changes = new Changes(nodeId);
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!onShard) send(changes);
+                }
+
+                @Override
+                public void afterCommit() {
+                    if (onShard) shardRouter.runGlobal(() -> send(changes));
+                    applyLocally(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(type, id);
+    }
+
+    // 현재 트랜잭션(또는 autocommit) 커넥션으로 NOTIFY
+    private void send(Changes changes) {
+        if (!enabled || changes.isEmpty()) return;
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, changes.encode());
+        published.increment();
+    }
+
+    // 자기 인스턴스의 변경이면 invalidateOwnWrites()=false 인 캐시는 건너뜀
+    private void applyLocally(Changes changes) {
+        boolean own = nodeId.equals(changes.origin);
+        for (InvalidatableCache cache : caches) {
+            if (own && !cache.invalidateOwnWrites()) continue;
+            changes.forEach(cache::invalidate);
+        }
+    }
+
+    private void flushAll(String reason) {
+        caches.forEach(InvalidatableCache::invalidateAll);
+        fullFlushes.increment();
+        log.info("Invalidation bus flushed all caches ({})", reason);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) return;
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) listenerThread.interrupt();
+    }
+
+    private void listenLoop() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                // 끊긴 동안의 통지는 알 수 없으므로 재연결 시 전체 비우기
+                if (reconnecting) flushAll("listener reconnected");
+                reconnecting = true;
+
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                long lastValidated = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] first = pg.getNotifications(1000);
+                    if (first == null || first.length == 0) {
+                        if (System.currentTimeMillis() - lastValidated > VALIDATION_INTERVAL_MS) {
+                            if (!conn.isValid(2)) throw new SQLException("listener connection is no longer valid");
+                            lastValidated = System.currentTimeMillis();
+                        }
+                        continue;
+                    }
+
+                    // coalesceMs 동안 들어오는 통지를 모아 한 번에 적용
+                    try {
+                        Changes burst = new Changes(null);
+                        boolean flush = collect(first, burst);
+                        long deadline = System.currentTimeMillis() + coalesceMs;
+                        long remaining;
+                        while (!flush && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                            PGNotification[] more = pg.getNotifications((int) remaining);
+                            if (more == null || more.length == 0) break;
+                            flush = collect(more, burst);
+                        }
+
+                        if (flush) {
+                            flushAll("remote full flush");
+                        } else {
+                            applyLocally(burst);
+                            applied.increment();
+                        }
+                    } catch (RuntimeException e) {
+                        // 해석할 수 없는 통지(예: 배포 중 새 버전 노드가 보낸 모르는 엔티티 코드)나 캐시 오류로
+                        // 리스너가 멈추면 캐시가 계속 낡으므로, 이번 묶음은 전체 비우기로 대신하고 계속 받음
+                        log.error("Could not apply invalidation notifications; flushing all caches", e);
+                        flushAll("undecodable notification");
+                    }
+                }
+            } catch (SQLException e) {
+                boolean wasConnected = connected;
+                connected = false;
+                if (!running) break;
+                log.warn("Invalidation listener connection lost: {}", e.getMessage());
+                if (wasConnected) flushAll("listener connection lost");
+                try {
+                    Thread.sleep(RECONNECT_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        connected = false;
+    }
+
+    // 다른 노드가 보낸 통지만 모음. 전체 비우기 통지가 있으면 true
+    private boolean collect(PGNotification[] notifications, Changes into) {
+        for (PGNotification n : notifications) {
+            received.increment();
+            String payload = n.getParameter();
+            if (nodeId.equals(Changes.originOf(payload))) continue;
+            if (Changes.decode(payload, into)) return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("enabled", enabled);
+        stats.put("listenerConnected", connected);
+        stats.put("published", published.sum());
+        stats.put("received", received.sum());
+        stats.put("appliedBatches", applied.sum());
+        stats.put("fullFlushes", fullFlushes.sum());
+        return stats;
+    }
+
+    /** 트랜잭션 하나에서 변경된 엔티티 ID 모음. origin = 변경한 인스턴스 (다른 노드들의 통지를 모은 것이면 null) */
+    static final class Changes {
+        private final String origin;
+        private final Map<EntityType, Set<Long>> ids = new EnumMap<>(EntityType.class);
+
+        Changes(String origin) {
+            this.origin = origin;
+        }
+
+        void add(EntityType type, long id) {
+            ids.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(id);
+        }
+
+        boolean isEmpty() {
+            return ids.isEmpty();
+        }
+
+        void forEach(BiConsumer<EntityType, Long> action) {
+            ids.forEach((type, set) -> set.forEach(id -> action.accept(type, id)));
+        }
+
+        String encode() {
+            StringBuilder sb = new StringBuilder(origin);
+            ids.forEach((type, set) -> {
+                sb.append('|').append(type.code());
+                boolean first = true;
+                for (Long id : set) {
+                    if (!first) sb.append(',');
+                    sb.append(id);
+                    first = false;
+                }
+            });
+            // 한도를 넘으면 받는 쪽에서 전체 비우기
+            return sb.length() > MAX_PAYLOAD ? origin + "|*" : sb.toString();
+        }
+
+        /** payload 를 보낸 인스턴스 */
+        static String originOf(String payload) {
+            int end = payload.indexOf('|');
+            return end < 0 ? payload : payload.substring(0, end);
+        }
+
+        /** payload 를 into 에 합침. 전체 비우기 통지면 true */
+        static boolean decode(String payload, Changes into) {
+            String[] parts = payload.split("\\|");
+            for (int i = 1; i < parts.length; i++) {
+                String part = parts[i];
+                if (part.equals("*")) return true;
+                if (part.length() < 2) continue;
+                EntityType type = EntityType.fromCode(part.charAt(0));
+                for (String id : part.substring(1).split(",")) {
+                    into.add(type, Long.parseLong(id));
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseStatus;
+import me.junyi.dto.CaseClientDto;
+import me.junyi.dto.CaseDetectiveDto;
+import me.junyi.dto.MyCaseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 보관된(CaseArchiver 가 옮긴) 사건 조회.
+ * 프로젝션과 같은 컬럼 이름으로 읽어서 CaseProjectionReader 의 매핑을 그대로 씁니다.
+ * CaseProjectionReader 는 COLUMNS 를 UNION ALL 로 붙이고, CaseService 의 기존 조회는 이 클래스의 결과를 앞에 합칩니다.
+ */
+@Component
+public class CaseArchiveReader {
+
+    static final String COLUMNS = """
+            SELECT c.case_id, p.part_id, c.title, c.content, c.difficulty, c.status,
+                   cu.nickname AS client_nickname, ku.nickname AS criminal_nickname,
+                   pu.nickname AS police_nickname, du.nickname AS detective_nickname,
+                   gu.nickname AS guess_nickname, tu.nickname AS actual_culprit_nickname, p.is_solved
+            FROM case_participation_archive p
+            JOIN case_info_archive c ON c.case_id = p.case_id
+            LEFT JOIN app_user cu ON cu.user_id = p.client_id
+            LEFT JOIN app_user ku ON ku.user_id = p.criminal_id
+            LEFT JOIN app_user pu ON pu.user_id = p.police_id
+            LEFT JOIN app_user du ON du.user_id = p.detective_id
+            LEFT JOIN app_user gu ON gu.user_id = p.detective_guess_id
+            LEFT JOIN app_user tu ON tu.user_id = c.true_criminal_id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CaseArchiveReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 의뢰인 - 보관된 의뢰 사건 */
+    public List<CaseClientDto> getCasesByClientId(Long clientId) {
+        return jdbcTemplate.query(COLUMNS + " WHERE p.client_id = ? ORDER BY p.part_id",
+                CaseProjectionReader.CLIENT_CASE, clientId);
+    }
+
+    /** 범인 - 보관된 참여 사건 */
+    public List<MyCaseDto> getCulpritCases(Long culpritId) {
+        return jdbcTemplate.query(COLUMNS + " WHERE p.criminal_id = ? ORDER BY p.part_id",
+                CaseProjectionReader.CULPRIT_CASE, culpritId);
+    }
+
+    /** 탐정 - 보관된 완료 사건 */
+    public List<CaseDetectiveDto> getCompletedCasesByDetectiveId(Long detectiveId) {
+        return jdbcTemplate.query(COLUMNS + " WHERE p.detective_id = ? AND c.status = ? ORDER BY p.part_id",
+                CaseProjectionReader.COMPLETED_DETECTIVE_CASE, detectiveId, CaseStatus.CLOSED.getCode());
+    }
+}
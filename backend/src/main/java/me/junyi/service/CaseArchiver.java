@@ -0,0 +1,199 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseStatus;
+import me.junyi.service.InvalidatableCache.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 끝난 사건('결과 확인')의 hot/cold 분리.
+ * closed_at 이 보존 기간보다 오래된 사건을 batchSize 건씩 한 트랜잭션으로
+ * case_info / case_participation / submitted_evidence / original_evidence 에서 *_archive 테이블로 옮기고,
+ * 대시보드 프로젝션(case_projection)에서도 지웁니다.
+ *
+ * - 묶음마다 커밋하므로 중간에 멈춰도 다음 실행이 남은 사건부터 이어서 처리합니다 (별도 체크포인트 불필요).
+ *   보관 INSERT 는 ON CONFLICT DO NOTHING 이라 같은 사건을 다시 옮겨도 안전합니다.
+ * - 대상 행은 FOR UPDATE SKIP LOCKED 로 잡아서, 다른 인스턴스의 보관 작업이나 진행 중인 요청과 겹치지 않습니다.
+ * - 묶음 사이에 pauseMs 만큼 쉬어서 운영 중 부하를 나눕니다.
+ * - 사건 샤딩 시에는 샤드마다 차례로 같은 작업을 합니다 (보관 테이블도 사건과 같은 샤드에 있음).
+ * 스키마는 database/migration/005_case_archive.sql 참고.
+ */
+@Component
+public class CaseArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseArchiver.class);
+
+    private static final String PICK_SQL = """
+            SELECT case_id FROM case_info
+            WHERE status = ? AND closed_at < ? AND case_id > ?
+            ORDER BY case_id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // 자식 테이블부터 옮김 (원본 FK 순서)
+    private static final List<String> MOVE_SQL = List.of(
+            """
+            INSERT INTO submitted_evidence_archive (submit_id, case_id, evidence_description, is_true_evidence)
+            SELECT submit_id, case_id, evidence_description, is_true_evidence
+            FROM submitted_evidence WHERE case_id = ANY (?)
+            ON CONFLICT DO NOTHING
+            """,
+            "DELETE FROM submitted_evidence WHERE case_id = ANY (?)",
+            """
+            INSERT INTO original_evidence_archive (evidence_id, case_id, description, is_true, is_fake_candidate)
+            SELECT evidence_id, case_id, description, is_true, is_fake_candidate
+            FROM original_evidence WHERE case_id = ANY (?)
+            ON CONFLICT DO NOTHING
+            """,
+            "DELETE FROM original_evidence WHERE case_id = ANY (?)",
+            """
+            INSERT INTO case_participation_archive (part_id, case_id, client_id, criminal_id, police_id, detective_id,
+                                                    detective_guess_id, is_solved)
+            SELECT part_id, case_id, client_id, criminal_id, police_id, detective_id, detective_guess_id, is_solved
+            FROM case_participation WHERE case_id = ANY (?)
+            ON CONFLICT DO NOTHING
+            """,
+            "DELETE FROM case_participation WHERE case_id = ANY (?)",
+            """
+            INSERT INTO case_info_archive (case_id, title, content, difficulty, status, true_criminal_id, closed_at)
+            SELECT case_id, title, content, difficulty, status, true_criminal_id, closed_at
+            FROM case_info WHERE case_id = ANY (?)
+            ON CONFLICT DO NOTHING
+            """,
+            "DELETE FROM case_info WHERE case_id = ANY (?)",
+            "DELETE FROM " + CaseProjector.TABLE + " WHERE case_id = ANY (?)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastReport;
+
+    public CaseArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        CacheInvalidationBus invalidationBus, ShardRouter shardRouter,
+                        @Value("${dbterm.case-archive.enabled:true}") boolean enabled,
+                        @Value("${dbterm.case-archive.retention-days:90}") int retentionDays,
+                        @Value("${dbterm.case-archive.batch-size:200}") int batchSize,
+                        @Value("${dbterm.case-archive.pause-ms:100}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.invalidationBus = invalidationBus;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(cron = "${dbterm.case-archive.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (!enabled) return;
+        Map<String, Object> report = archiveExpired(null);
+        log.info("Case archive run: {}", report);
+    }
+
+    /** 끝난 지 days 일(null 이면 설정된 보존 기간)이 지난 사건을 보관 */
+    public Map<String, Object> archiveExpired(Integer days) {
+        return archive(LocalDateTime.now().minusDays(days != null ? days : retentionDays));
+    }
+
+    /** closedBefore 이전에 끝난 사건을 모두 옮기고 결과 요약을 반환. 이미 실행 중이면 IllegalStateException */
+    public Map<String, Object> archive(LocalDateTime closedBefore) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("사건 보관 작업이 이미 실행 중입니다.");
+        }
+        long started = System.nanoTime();
+        long lastCaseId = 0;
+        int batches = 0;
+        int archived = 0;
+        try {
+            for (long[] shard : shardRouter.eachShard(() -> archiveShard(closedBefore))) {
+                batches += (int) shard[0];
+                archived += (int) shard[1];
+                lastCaseId = Math.max(lastCaseId, shard[2]);
+            }
+        } finally {
+            running.set(false);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("closedBefore", closedBefore);
+        report.put("archivedCases", archived);
+        report.put("batches", batches);
+        report.put("lastCaseId", lastCaseId);
+        report.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        lastReport = report;
+        return report;
+    }
+
+    // 현재 샤드(샤딩을 끄면 전역 DB)에서 끝까지 옮김. {묶음 수, 사건 수, 마지막 case_id}
+    private long[] archiveShard(LocalDateTime closedBefore) {
+        long lastCaseId = 0;
+        int batches = 0;
+        int archived = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long after = lastCaseId;
+                Long[] caseIds = transactionTemplate.execute(status -> moveBatch(closedBefore, after));
+                if (caseIds == null || caseIds.length == 0) break;
+                batches++;
+                archived += caseIds.length;
+                lastCaseId = caseIds[caseIds.length - 1];
+                if (caseIds.length < batchSize) break;
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new long[]{batches, archived, lastCaseId};
+    }
+
+    // 한 묶음: 대상 선택(잠금) → 테이블별 이동 → 캐시 무효화 통지 (커밋 시 전송)
+    private Long[] moveBatch(LocalDateTime closedBefore, long afterCaseId) {
+        Long[] caseIds = jdbcTemplate.queryForList(PICK_SQL, Long.class,
+                        CaseStatus.CLOSED.getCode(), Timestamp.valueOf(closedBefore), afterCaseId, batchSize)
+                .toArray(Long[]::new);
+        if (caseIds.length == 0) return caseIds;
+
+        for (String sql : MOVE_SQL) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setArray(1, con.createArrayOf("bigint", caseIds));
+                return ps;
+            });
+        }
+        for (Long caseId : caseIds) invalidationBus.publish(EntityType.CASE, caseId);
+        return caseIds;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("retentionDays", retentionDays);
+        stats.put("batchSize", batchSize);
+        stats.put("lastRun", lastReport);
+        return stats;
+    }
+}
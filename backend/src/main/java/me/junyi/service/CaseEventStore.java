@@ -0,0 +1,101 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseEvent;
+import me.junyi.domain.CaseEventType;
+import me.junyi.repository.CaseEventRepository;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사건 워크플로우 이벤트 저장소.
+ * 상태 전이마다 이벤트를 추가하고, 같은 트랜잭션에서 대시보드용 프로젝션을 갱신한 뒤 관련자 활동 피드에 분배합니다.
+ * event_id 는 커밋이 아니라 INSERT 시점에 정해지므로, 전이는 읽기 전에 lockCase() 로 사건 행을 잠가서
+ * 같은 사건의 이벤트가 event_id 순서대로 커밋되게 해야 합니다 (프로젝션은 last_event_id 보다 작은 이벤트를 버림).
+ */
+@Component
+public class CaseEventStore {
+
+    private final CaseEventRepository caseEventRepository;
+    private final CaseProjector caseProjector;
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityFeed activityFeed;
+
+    public CaseEventStore(CaseEventRepository caseEventRepository, CaseProjector caseProjector,
+                          JdbcTemplate jdbcTemplate, ActivityFeed activityFeed) {
+        this.caseEventRepository = caseEventRepository;
+        this.caseProjector = caseProjector;
+        this.jdbcTemplate = jdbcTemplate;
+        this.activityFeed = activityFeed;
+    }
+
+    /** 사건 행 잠금 (SELECT ... FOR UPDATE, 트랜잭션 끝까지 유지). 같은 사건의 전이를 한 줄로 세움 */
+    public void lockCase(Long caseId) {
+        List<Long> locked = jdbcTemplate.queryForList(
+                "SELECT case_id FROM case_info WHERE case_id = ? FOR UPDATE", Long.class, caseId);
+        if (locked.isEmpty()) {
+            throw new IllegalArgumentException("사건을 찾을 수 없습니다.");
+        }
+    }
+
+    public CaseEvent append(Long caseId, CaseEventType type, Long actorId) {
+        return append(caseId, type, actorId, null, null);
+    }
+
+    public CaseEvent append(Long caseId, CaseEventType type, Long actorId, Long subjectId, Boolean flag) {
+        CaseEvent event = caseEventRepository.save(CaseEvent.builder()
+                .caseId(caseId)
+                .eventType(type)
+                .actorId(actorId)
+                .subjectId(subjectId)
+                .flag(flag)
+                .build());
+        caseProjector.apply(event);
+        activityFeed.record(List.of(event));
+        return event;
+    }
+
+    /** 이벤트 여러 건을 JDBC 배치 한 번으로 추가하고 프로젝션도 배치로 갱신 (일괄 처리 경로용) */
+    public List<CaseEvent> appendAll(List<CaseEvent> events) {
+        if (events.isEmpty()) return events;
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(
+                "INSERT INTO case_event (case_id, event_type, actor_id, subject_id, flag, occurred_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?)", new String[]{"event_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        CaseEvent e = events.get(i);
+                        ps.setLong(1, e.getCaseId());
+                        ps.setShort(2, e.getEventType().getCode());
+                        ps.setObject(3, e.getActorId(), Types.BIGINT);
+                        ps.setObject(4, e.getSubjectId(), Types.BIGINT);
+                        ps.setObject(5, e.getFlag(), Types.BOOLEAN);
+                        ps.setTimestamp(6, Timestamp.valueOf(e.getOccurredAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < events.size(); i++) {
+            events.get(i).setEventId(((Number) ids.get(i).get("event_id")).longValue());
+        }
+        caseProjector.applyAll(events);
+        activityFeed.record(events);
+        return events;
+    }
+}
@@ -0,0 +1,178 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseStatus;
+import me.junyi.dto.AvailableCaseDto;
+import me.junyi.dto.CaseClientDto;
+import me.junyi.dto.CaseDetectiveDto;
+import me.junyi.dto.MyCaseDto;
+import me.junyi.dto.PendingCaseDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 대시보드용 사건 목록 조회 (CASE_PROJECTION 한 테이블만 읽음).
+ * CaseService 의 역할별 조회와 같은 조건·같은 DTO 를 돌려주지만, 사건마다 참여/사용자 테이블을 다시 조회하지 않습니다.
+ * 기록성 목록(의뢰/참여 내역, 완료 사건)은 보관된 사건(CaseArchiveReader)을 UNION ALL 로 함께 읽습니다.
+ * 샤딩 시에는 모든 샤드에서 같은 조회를 실행하고 각 조회의 ORDER BY 기준으로 다시 정렬해 합칩니다 (ShardRouter.scatter).
+ */
+@Component
+public class CaseProjectionReader {
+
+    private static final String COLUMNS = "SELECT case_id, part_id, title, content, difficulty, status,"
+            + " client_nickname, criminal_nickname, police_nickname, detective_nickname,"
+            + " guess_nickname, actual_culprit_nickname, is_solved FROM " + CaseProjector.TABLE;
+
+    // 샤드별 결과를 합칠 때 쓰는 정렬 기준 (SQL 의 ORDER BY part_id / case_id 와 같음)
+    private static final Comparator<Long> ID_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public CaseProjectionReader(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    /** 의뢰인 - 의뢰한 사건 (보관된 사건 포함) */
+    public List<CaseClientDto> getCasesByClientId(Long clientId) {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS + " WHERE client_id = ?"
+                        + " UNION ALL " + CaseArchiveReader.COLUMNS + " WHERE p.client_id = ? ORDER BY part_id",
+                        CLIENT_CASE, clientId, clientId),
+                Comparator.comparing(CaseClientDto::getActiveId, ID_ORDER));
+    }
+
+    /** 범인 - 참여 가능한 사건 ('등록' 이면서 범인 미지정) */
+    public List<AvailableCaseDto> getAvailableCasesForCulprit() {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS
+                                + " WHERE status = ? AND criminal_id IS NULL AND client_id IS NOT NULL ORDER BY part_id",
+                        (rs, rowNum) -> AvailableCaseDto.builder()
+                                .activeId(partId(rs))
+                                .caseId(rs.getLong("case_id"))
+                                .caseTitle(rs.getString("title"))
+                                .caseDescription(rs.getString("content"))
+                                .difficulty(rs.getInt("difficulty"))
+                                .clientNickname(rs.getString("client_nickname"))
+                                .build(),
+                        CaseStatus.REGISTERED.getCode()),
+                Comparator.comparing(AvailableCaseDto::getActiveId, ID_ORDER));
+    }
+
+    /** 범인 - 내가 참여한 사건 (보관된 사건 포함) */
+    public List<MyCaseDto> getCulpritMyCases(Long culpritId) {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS + " WHERE criminal_id = ?"
+                        + " UNION ALL " + CaseArchiveReader.COLUMNS + " WHERE p.criminal_id = ? ORDER BY part_id",
+                        CULPRIT_CASE, culpritId, culpritId),
+                Comparator.comparing(MyCaseDto::getActiveId, ID_ORDER));
+    }
+
+    /** 경찰 - '조작', '접수중' 사건 */
+    public List<PendingCaseDto> getPendingCasesForPolice() {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS + " WHERE status IN (?, ?) ORDER BY case_id",
+                        (rs, rowNum) -> PendingCaseDto.builder()
+                                .activeId(partId(rs))
+                                .caseId(rs.getLong("case_id"))
+                                .caseTitle(rs.getString("title"))
+                                .caseDescription(rs.getString("content"))
+                                .difficulty(rs.getInt("difficulty"))
+                                .clientNickname(orDefault(rs.getString("client_nickname"), "알 수 없음"))
+                                .culpritNickname(orDefault(rs.getString("criminal_nickname"), "미지정"))
+                                .status(status(rs))
+                                .build(),
+                        CaseStatus.FABRICATED.getCode(), CaseStatus.RECEIVED.getCode()),
+                Comparator.comparing(PendingCaseDto::getCaseId, ID_ORDER));
+    }
+
+    /** 탐정 - 배정된 사건 ('배정') */
+    public List<CaseDetectiveDto> getAssignedCasesByDetectiveId(Long detectiveId) {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS + " WHERE detective_id = ? AND status = ? ORDER BY part_id",
+                        (rs, rowNum) -> detectiveCase(rs)
+                                .culpritGuess(null)
+                                .result(null)
+                                .actualCulprit(null)
+                                .build(),
+                        detectiveId, CaseStatus.ASSIGNED.getCode()),
+                Comparator.comparing(CaseDetectiveDto::getActiveId, ID_ORDER));
+    }
+
+    /** 탐정 - 완료된 사건 ('결과 확인', 보관된 사건 포함) */
+    public List<CaseDetectiveDto> getCompletedCasesByDetectiveId(Long detectiveId) {
+        return shardRouter.scatter(() -> jdbcTemplate.query(COLUMNS + " WHERE detective_id = ? AND status = ?"
+                                + " UNION ALL " + CaseArchiveReader.COLUMNS + " WHERE p.detective_id = ? AND c.status = ?"
+                                + " ORDER BY part_id",
+                        COMPLETED_DETECTIVE_CASE,
+                        detectiveId, CaseStatus.CLOSED.getCode(), detectiveId, CaseStatus.CLOSED.getCode()),
+                Comparator.comparing(CaseDetectiveDto::getActiveId, ID_ORDER));
+    }
+
+    // 보관 테이블(CaseArchiveReader.COLUMNS)도 같은 컬럼 이름으로 읽으므로 매핑을 함께 씀
+    static final RowMapper<CaseClientDto> CLIENT_CASE = (rs, rowNum) -> {
+        CaseStatus status = status(rs);
+        return CaseClientDto.builder()
+                .caseId(rs.getLong("case_id"))
+                .activeId(partId(rs))
+                .caseTitle(rs.getString("title"))
+                .caseDescription(rs.getString("content"))
+                .difficulty(rs.getInt("difficulty"))
+                .detectiveNickname(orDefault(rs.getString("detective_nickname"), "미배정"))
+                .status(status)
+                .result(status == CaseStatus.CLOSED ? orDefault(result(rs), "미정") : null)
+                .build();
+    };
+
+    static final RowMapper<MyCaseDto> CULPRIT_CASE = (rs, rowNum) -> {
+        CaseStatus status = status(rs);
+        return MyCaseDto.builder()
+                .caseId(rs.getLong("case_id"))
+                .activeId(partId(rs))
+                .caseTitle(rs.getString("title"))
+                .caseDescription(rs.getString("content"))
+                .clientNickname(orDefault(rs.getString("client_nickname"), "미정"))
+                .difficulty(rs.getInt("difficulty"))
+                .status(status)
+                .fakeEvidenceSelected(status == CaseStatus.FABRICATED)
+                .build();
+    };
+
+    static final RowMapper<CaseDetectiveDto> COMPLETED_DETECTIVE_CASE = (rs, rowNum) -> detectiveCase(rs)
+            .culpritGuess(rs.getString("guess_nickname"))
+            .result(result(rs))
+            .actualCulprit(orDefault(rs.getString("actual_culprit_nickname"), "미정"))
+            .build();
+
+    private static CaseDetectiveDto.CaseDetectiveDtoBuilder detectiveCase(ResultSet rs) throws SQLException {
+        return CaseDetectiveDto.builder()
+                .activeId(partId(rs))
+                .caseId(rs.getLong("case_id"))
+                .caseTitle(rs.getString("title"))
+                .caseDescription(rs.getString("content"))
+                .difficulty(rs.getInt("difficulty"))
+                .clientNickname(orDefault(rs.getString("client_nickname"), "미정"))
+                .policeNickname(orDefault(rs.getString("police_nickname"), "미정"))
+                .status(status(rs));
+    }
+
+    private static CaseStatus status(ResultSet rs) throws SQLException {
+        return CaseStatus.fromCode(rs.getShort("status"));
+    }
+
+    private static Long partId(ResultSet rs) throws SQLException {
+        long partId = rs.getLong("part_id");
+        return rs.wasNull() ? null : partId;
+    }
+
+    // '감사'(해결) / '부고'(미해결), 아직 판정 전이면 null
+    private static String result(ResultSet rs) throws SQLException {
+        boolean solved = rs.getBoolean("is_solved");
+        return rs.wasNull() ? null : (solved ? "감사" : "부고");
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
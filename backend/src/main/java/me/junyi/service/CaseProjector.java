@@ -0,0 +1,317 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseEvent;
+import me.junyi.domain.CaseEventType;
+import me.junyi.domain.CaseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * CASE_EVENT 를 CASE_PROJECTION(사건 단위 비정규화 테이블)에 반영합니다.
+ *
+ * - apply() / applyAll(): 이벤트 추가와 같은 트랜잭션에서 호출되어 프로젝션을 즉시 갱신합니다.
+ * - rebuild(): 이벤트 로그 전체를 병렬로 재생해 프로젝션을 처음부터 다시 만듭니다.
+ *   사건별 순서를 지키기 위해 case_id 로 작업 스레드를 나누고, 별도 테이블에 만든 뒤 기존 테이블에 복사합니다.
+ * 사건 샤딩 시 case_event 와 case_projection 은 사건과 같은 샤드에 있으므로 rebuild() 는 샤드마다 차례로 실행합니다.
+ * 모든 갱신은 last_event_id 보다 새 이벤트일 때만 적용되므로 같은 이벤트를 두 번 재생해도 안전합니다.
+ * 이 가드는 사건별 이벤트가 event_id 순서대로 커밋된다고 가정하며, 전이마다 사건 행을 잠가서 지킵니다
+ * (CaseEventStore.lockCase, 일괄 처리는 case_info 상태 UPDATE 가 같은 행 잠금).
+ */
+@Component
+public class CaseProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseProjector.class);
+
+    static final String TABLE = "case_projection";
+    private static final String REBUILD_TABLE = "case_projection_rebuild";
+    private static final int FETCH_SIZE = 2000;
+    private static final int BATCH_SIZE = 500;
+    private static final CaseEvent END = CaseEvent.builder().build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int rebuildThreads;
+    private final boolean rebuildOnStartup;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public CaseProjector(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ShardRouter shardRouter,
+                         @Value("${dbterm.projection.rebuild-threads:4}") int rebuildThreads,
+                         @Value("${dbterm.projection.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.rebuildThreads = rebuildThreads;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /** 이벤트 하나를 프로젝션에 반영 (현재 트랜잭션 안에서 실행) */
+    public void apply(CaseEvent event) {
+        apply(TABLE, event);
+    }
+
+    /** 이벤트 여러 건을 순서대로 반영. 같은 종류가 연속된 구간은 JDBC 배치 한 번으로 보냄 */
+    public void applyAll(List<CaseEvent> events) {
+        applyAll(TABLE, events);
+    }
+
+    private void apply(String table, CaseEvent e) {
+        jdbcTemplate.update(sql(table, e.getEventType()), args(e));
+    }
+
+    private void applyAll(String table, List<CaseEvent> events) {
+        int from = 0;
+        while (from < events.size()) {
+            CaseEventType type = events.get(from).getEventType();
+            int to = from + 1;
+            while (to < events.size() && events.get(to).getEventType() == type) to++;
+
+            List<Object[]> batch = new ArrayList<>(to - from);
+            for (CaseEvent e : events.subList(from, to)) batch.add(args(e));
+            jdbcTemplate.batchUpdate(sql(table, type), batch);
+            from = to;
+        }
+    }
+
+    private static String sql(String table, CaseEventType type) {
+        String guard = " WHERE case_id = ? AND last_event_id < ?";
+        return switch (type) {
+            case CLIENT_STARTED -> "INSERT INTO " + table + " (case_id, part_id, title, content, difficulty, status,"
+                    + " client_id, client_nickname, actual_culprit_nickname, last_event_id)"
+                    + " SELECT c.case_id, ?, c.title, c.content, c.difficulty, ?, ?, u.nickname, t.nickname, ?"
+                    + " FROM case_info c"
+                    + " LEFT JOIN app_user u ON u.user_id = ?"
+                    + " LEFT JOIN app_user t ON t.user_id = c.true_criminal_id"
+                    + " WHERE c.case_id = ?"
+                    + " ON CONFLICT (case_id) DO UPDATE SET part_id = EXCLUDED.part_id,"
+                    + " client_id = EXCLUDED.client_id, client_nickname = EXCLUDED.client_nickname,"
+                    + " last_event_id = EXCLUDED.last_event_id"
+                    + " WHERE " + table + ".last_event_id < EXCLUDED.last_event_id";
+            case CULPRIT_JOINED -> "UPDATE " + table + " SET criminal_id = ?,"
+                    + " criminal_nickname = (SELECT nickname FROM app_user WHERE user_id = ?),"
+                    + " last_event_id = ?" + guard;
+            case FABRICATED -> "UPDATE " + table + " SET status = ?, last_event_id = ?" + guard;
+            case POLICE_ACCEPTED -> "UPDATE " + table + " SET status = ?, police_id = ?,"
+                    + " police_nickname = (SELECT nickname FROM app_user WHERE user_id = ?),"
+                    + " last_event_id = ?" + guard;
+            case DETECTIVE_ASSIGNED -> "UPDATE " + table + " SET status = ?, police_id = ?,"
+                    + " police_nickname = (SELECT nickname FROM app_user WHERE user_id = ?),"
+                    + " detective_id = ?,"
+                    + " detective_nickname = (SELECT nickname FROM app_user WHERE user_id = ?),"
+                    + " last_event_id = ?" + guard;
+            case VERDICT -> "UPDATE " + table + " SET status = ?,"
+                    + " guess_nickname = (SELECT nickname FROM app_user WHERE user_id = ?),"
+                    + " is_solved = ?, last_event_id = ?" + guard;
+        };
+    }
+
+    // sql() 의 자리표시자 순서와 일치
+    private static Object[] args(CaseEvent e) {
+        return switch (e.getEventType()) {
+            case CLIENT_STARTED -> new Object[]{e.getSubjectId(), CaseStatus.REGISTERED.getCode(), e.getActorId(),
+                    e.getEventId(), e.getActorId(), e.getCaseId()};
+            case CULPRIT_JOINED -> new Object[]{e.getActorId(), e.getActorId(), e.getEventId(),
+                    e.getCaseId(), e.getEventId()};
+            case FABRICATED -> new Object[]{CaseStatus.FABRICATED.getCode(), e.getEventId(),
+                    e.getCaseId(), e.getEventId()};
+            case POLICE_ACCEPTED -> new Object[]{CaseStatus.RECEIVED.getCode(), e.getActorId(), e.getActorId(),
+                    e.getEventId(), e.getCaseId(), e.getEventId()};
+            case DETECTIVE_ASSIGNED -> new Object[]{CaseStatus.ASSIGNED.getCode(), e.getActorId(), e.getActorId(),
+                    e.getSubjectId(), e.getSubjectId(), e.getEventId(), e.getCaseId(), e.getEventId()};
+            case VERDICT -> new Object[]{CaseStatus.CLOSED.getCode(), e.getSubjectId(), e.getFlag(),
+                    e.getEventId(), e.getCaseId(), e.getEventId()};
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (rebuildOnStartup) rebuild();
+    }
+
+    /**
+     * 이벤트 로그로 프로젝션 재생성.
+     * 1) 워터마크까지의 이벤트를 새 테이블에 병렬 재생 → 2) 이벤트 쓰기를 막고 워터마크 이후 이벤트를 반영
+     * → 3) 기존 테이블을 비우고 새 테이블 내용을 복사
+     */
+    public Map<String, Object> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("프로젝션 재생성이 이미 진행 중입니다.");
+        }
+        try {
+            List<Map<String, Object>> reports = shardRouter.eachShard(this::rebuildTable);
+            if (reports.size() == 1) return reports.get(0);
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("shards", reports);
+            return report;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    // 현재 샤드(샤딩을 끄면 전역 DB)의 프로젝션 재생성
+    private Map<String, Object> rebuildTable() {
+        long start = System.nanoTime();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + REBUILD_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + REBUILD_TABLE + " (LIKE " + TABLE + " INCLUDING ALL)");
+
+        // event_id 는 INSERT 때 매겨지므로 커밋 순서와 다를 수 있음. 이벤트 쓰기를 잠깐 막고(진행 중인 쓰기는 커밋될 때까지 기다림)
+        // 최댓값을 워터마크로 잡으면, 워터마크 이하는 모두 커밋된 상태라 재생에서 빠지는 이벤트가 없음
+        long watermark = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("LOCK TABLE case_event IN SHARE MODE");
+            return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(event_id), 0) FROM case_event", Long.class);
+        });
+
+        long[] replayed = {0};
+        replayParallel(watermark, replayed);
+
+        // 재생하는 동안 들어온 이벤트는 다시 쓰기를 막은 상태에서 마저 반영한 뒤 교체.
+        // 테이블을 지우고 이름을 바꾸면 기존 테이블에 걸려 기다리던 트랜잭션이 실패하므로 같은 테이블에 내용을 복사함
+        long[] caughtUp = {0};
+        long[] rows = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE case_event IN SHARE MODE");
+            streamEvents(watermark, Long.MAX_VALUE, event -> {
+                apply(REBUILD_TABLE, event);
+                caughtUp[0]++;
+            });
+            jdbcTemplate.execute("TRUNCATE " + TABLE);
+            // 재생 중에 보관(CaseArchiver)된 사건은 빼고 복사
+            rows[0] = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT r.* FROM " + REBUILD_TABLE + " r"
+                    + " WHERE EXISTS (SELECT 1 FROM case_info c WHERE c.case_id = r.case_id)");
+            jdbcTemplate.execute("DROP TABLE " + REBUILD_TABLE);
+        });
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long total = replayed[0] + caughtUp[0];
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("events", total);
+        report.put("caughtUpEvents", caughtUp[0]);
+        report.put("watermark", watermark);
+        report.put("rows", rows[0]);
+        report.put("threads", rebuildThreads);
+        report.put("elapsedMs", Math.round(seconds * 1000));
+        report.put("eventsPerSecond", seconds == 0 ? total : Math.round(total / seconds));
+        log.info("Case projection rebuilt: {}", report);
+        return report;
+    }
+
+    // upToEventId 까지의 이벤트를 case_id 기준으로 나눠 병렬 반영
+    private void replayParallel(long upToEventId, long[] replayed) {
+        List<BlockingQueue<CaseEvent>> queues = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        LongAdder applied = new LongAdder();
+
+        for (int i = 0; i < rebuildThreads; i++) {
+            BlockingQueue<CaseEvent> queue = new ArrayBlockingQueue<>(BATCH_SIZE * 4);
+            queues.add(queue);
+            Thread worker = new Thread(ShardRouter.inheritShard(() -> drain(queue, applied, failure)),
+                    "projection-replay-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        try {
+            streamEvents(0, upToEventId, event -> {
+                if (failure.get() != null) throw failure.get();
+                int slot = (int) Math.floorMod(event.getCaseId(), (long) rebuildThreads);
+                put(queues.get(slot), event);
+            });
+        } finally {
+            queues.forEach(q -> put(q, END));
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (failure.get() != null) throw failure.get();
+        replayed[0] = applied.sum();
+    }
+
+    // 작업 스레드: 큐에서 이벤트를 모아 BATCH_SIZE 단위 트랜잭션으로 반영 (스레드마다 별도 커넥션)
+    private void drain(BlockingQueue<CaseEvent> queue, LongAdder applied, AtomicReference<RuntimeException> failure) {
+        List<CaseEvent> batch = new ArrayList<>(BATCH_SIZE);
+        boolean done = false;
+        try {
+            while (!done) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                if (batch.get(batch.size() - 1) == END) {
+                    batch.remove(batch.size() - 1);
+                    done = true;
+                }
+                if (failure.get() == null && !batch.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> applyAll(REBUILD_TABLE, batch));
+                    applied.add(batch.size());
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            // 읽는 쪽이 막히지 않도록 남은 이벤트는 버림
+            while (!done) {
+                try {
+                    done = queue.take() == END;
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<CaseEvent> queue, CaseEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("프로젝션 재생이 중단되었습니다.", e);
+        }
+    }
+
+    // 서버 측 커서로 (afterEventId, upToEventId] 이벤트를 순서대로 읽기
+    private void streamEvents(long afterEventId, long upToEventId, Consumer<CaseEvent> consumer) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT event_id, case_id, event_type, actor_id, subject_id, flag"
+                            + " FROM case_event WHERE event_id > ? AND event_id <= ? ORDER BY event_id");
+            ps.setLong(1, afterEventId);
+            ps.setLong(2, upToEventId);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(CaseEvent.builder()
+                    .eventId(rs.getLong("event_id"))
+                    .caseId(rs.getLong("case_id"))
+                    .eventType(CaseEventType.fromCode(rs.getShort("event_type")))
+                    .actorId(rs.getObject("actor_id") != null ? rs.getLong("actor_id") : null)
+                    .subjectId(rs.getObject("subject_id") != null ? rs.getLong("subject_id") : null)
+                    .flag(rs.getObject("flag") != null ? rs.getBoolean("flag") : null)
+                    .build());
+        }));
+    }
+}
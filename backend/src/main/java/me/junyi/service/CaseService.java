@@ -7,9 +7,10 @@ import me.junyi.dto.CaseDetectiveDto;
 import me.junyi.dto.MyCaseDto;
 import me.junyi.dto.PendingCaseDto;
 import me.junyi.repository.*;
+import me.junyi.service.InvalidatableCache.EntityType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map; // Map 추가
 import java.util.Objects;
@@ -23,41 +24,59 @@ public class CaseService {
     private final CaseParticipationRepository participationRepository;
     private final OriginalEvidenceRepository originalEvidenceRepository;
     private final SubmittedEvidenceRepository submittedEvidenceRepository;
-    private final ScoreLogRepository scoreLogRepository; // SCORE_LOG Repository
+    private final ScoreOutbox scoreOutbox; // 점수 변경 (SCORE_LOG 포함)
     private final AppUserRepository appUserRepository;
     private final JdbcTemplate jdbcTemplate; // Native Query를 위한 JdbcTemplate
+    private final EvidenceCatalog evidenceCatalog; // 원본 증거 캐시
+    private final CacheInvalidationBus invalidationBus; // 인스턴스 간 캐시 무효화
+    private final CaseEventStore caseEventStore; // 상태 전이 이벤트 로그
+    private final CaseArchiveReader archiveReader; // 보관된 사건 조회
+    private final ShardRouter shardRouter; // 사건 샤드 라우팅
 
     // 🚨 생성자 문법 수정 및 모든 필드 주입
     public CaseService(CaseInfoRepository caseInfoRepository, CaseParticipationRepository participationRepository,
                        OriginalEvidenceRepository originalEvidenceRepository, SubmittedEvidenceRepository submittedEvidenceRepository,
-                       AppUserRepository appUserRepository, JdbcTemplate jdbcTemplate, ScoreLogRepository scoreLogRepository) {
+                       AppUserRepository appUserRepository, JdbcTemplate jdbcTemplate, ScoreOutbox scoreOutbox,
+                       EvidenceCatalog evidenceCatalog, CacheInvalidationBus invalidationBus,
+                       CaseEventStore caseEventStore, CaseArchiveReader archiveReader, ShardRouter shardRouter) {
         this.caseInfoRepository = caseInfoRepository;
         this.participationRepository = participationRepository;
         this.originalEvidenceRepository = originalEvidenceRepository;
         this.submittedEvidenceRepository = submittedEvidenceRepository;
         this.appUserRepository = appUserRepository;
         this.jdbcTemplate = jdbcTemplate;
-        this.scoreLogRepository = scoreLogRepository;
+        this.scoreOutbox = scoreOutbox;
+        this.evidenceCatalog = evidenceCatalog;
+        this.invalidationBus = invalidationBus;
+        this.caseEventStore = caseEventStore;
+        this.archiveReader = archiveReader;
+        this.shardRouter = shardRouter;
     } // 🚨 닫는 중괄호 추가!
 
 
     /** 1. 사건 목록 조회 (STATUS='등록') */
     public List<CaseInfo> getAvailableCases() {
-        return caseInfoRepository.findAllByStatus("등록");
+        return shardRouter.scatter(() -> caseInfoRepository.findAllByStatus(CaseStatus.REGISTERED));
     }
 
     // ... (JdbcTemplate을 사용하는 getClientCases 메서드는 이전에 구현되어 있다고 가정) ...
 
 
     /** 2. 범인의 증거 조작 처리 (CRIMINAL_ID는 여기서 건드리지 않음) */
-    @Transactional
     public CaseInfo handleCriminalAction(Long caseId, Long criminalId, String fakeEvidenceDescription) {
+        return shardRouter.inCaseTransaction(caseId, () -> criminalAction(caseId, criminalId, fakeEvidenceDescription));
+    }
+
+    private CaseInfo criminalAction(Long caseId, Long criminalId, String fakeEvidenceDescription) {
 
         // 🚨 1) fakeEvidenceDescription이 비었으면 절대 처리하지 않음
         if (fakeEvidenceDescription == null || fakeEvidenceDescription.isEmpty()) {
             throw new IllegalArgumentException("선택한 증거가 없습니다. 조작이 실행되지 않았습니다.");
         }
 
+        // 같은 사건의 전이는 사건 행 잠금으로 차례대로 (이벤트 순서 = 커밋 순서)
+        caseEventStore.lockCase(caseId);
+
         // 2) 참여 정보 가져오기 (하지만 criminalId 저장 금지!)
         CaseParticipation participation = participationRepository.findByCaseId(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("참여 레코드가 없습니다."));
@@ -80,12 +99,12 @@ public class CaseService {
         //         .build();
         // scoreLogRepository.save(log);
 
-        // 3) 제출된 증거 구성 (진짜 + 선택된 거짓)
-        List<OriginalEvidence> trueEvidences =
-                originalEvidenceRepository.findByCaseIdAndIsFakeCandidate(caseId, false);
+        // 3) 제출된 증거 구성 (진짜 + 선택된 거짓) - 원본 증거는 캐시에서 조회
+        EvidenceCatalog.CaseEvidence evidence = evidenceCatalog.get(caseId);
+        List<OriginalEvidence> trueEvidences = evidence.trueEvidences();
 
         OriginalEvidence selectedFake =
-                originalEvidenceRepository.findByCaseIdAndIsFakeCandidate(caseId, true).stream()
+                evidence.fakeCandidates().stream()
                         .filter(e -> e.getDescription().equals(fakeEvidenceDescription))
                         .findFirst()
                         .orElseThrow(() -> new IllegalArgumentException("선택한 거짓 증거를 찾을 수 없습니다."));
@@ -104,14 +123,21 @@ public class CaseService {
 
         // 4) 사건 상태 업데이트 → 조작 완료 시에만 변경
         CaseInfo caseInfo = caseInfoRepository.findById(caseId).orElseThrow();
-        caseInfo.setStatus("조작");
+        caseInfo.setStatus(CaseStatus.FABRICATED);
+        caseEventStore.append(caseId, CaseEventType.FABRICATED, criminalId);
+        invalidationBus.publish(EntityType.CASE, caseId);
         return caseInfoRepository.save(caseInfo);
     }
 
 
     /** 3. 경찰의 탐정 배정 및 상태 변경 처리 (POLICE_ID, DETECTIVE_ID 등록, STATUS='배정') */
-    @Transactional
     public CaseInfo handlePoliceAssignment(Long caseId, Long policeId, Long detectiveId) {
+        return shardRouter.inCaseTransaction(caseId, () -> policeAssignment(caseId, policeId, detectiveId));
+    }
+
+    private CaseInfo policeAssignment(Long caseId, Long policeId, Long detectiveId) {
+        caseEventStore.lockCase(caseId);
+
         // A. 참여 정보 업데이트 (경찰, 탐정 ID 등록 및 점수 부여)
         CaseParticipation participation = participationRepository.findByCaseId(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("참여 레코드를 찾을 수 없습니다."));
@@ -126,29 +152,31 @@ public class CaseService {
 
         // C. 사건 상태 업데이트: '배정'
         CaseInfo caseInfo = caseInfoRepository.findById(caseId).orElseThrow();
-        caseInfo.setStatus("배정");
-        return caseInfoRepository.save(caseInfo);
+        caseInfo.setStatus(CaseStatus.ASSIGNED);
+        CaseInfo saved = caseInfoRepository.save(caseInfo);
+        caseEventStore.append(caseId, CaseEventType.DETECTIVE_ASSIGNED, policeId, detectiveId, null);
+        invalidationBus.publish(EntityType.CASE, caseId);
+
+        // D. 배정 이후에는 증거 조작 화면이 없으므로 캐시에서 제거
+        evidenceCatalog.invalidate(caseId);
+        return saved;
     }
 
     // 헬퍼 메서드: 점수 업데이트 및 로그 기록 (SCORE_LOG 추가)
+    // 점수는 전역 DB 에 있으므로 샤딩 시에는 사건 샤드의 outbox 에 남겼다가 커밋 뒤 반영됨 (ScoreOutbox)
     private void updateUserScore(Long userId, int scoreChange, Long caseId, String reason) {
-        AppUser user = appUserRepository.findById(userId).orElseThrow();
-        user.setScore(user.getScore() + scoreChange);
-        appUserRepository.save(user);
-
-        // 🚨 SCORE_LOG 기록
-        ScoreLog log = ScoreLog.builder()
-                .userId(userId)
-                .caseId(caseId)
-                .scoreChange(scoreChange)
-                .reason(reason)
-                .build();
-        scoreLogRepository.save(log);
+        scoreOutbox.add(userId, caseId, scoreChange, reason);
     }
 
     /** 4. 탐정 - 배정된 사건 조회 (STATUS='배정') */
     public List<CaseDetectiveDto> getAssignedCasesByDetectiveId(Long detectiveId) {
 
+        // 사건은 샤드별로 나뉘어 있으므로 샤드마다 조회해서 합침
+        return shardRouter.scatter(() -> assignedCasesByDetectiveId(detectiveId));
+    }
+
+    private List<CaseDetectiveDto> assignedCasesByDetectiveId(Long detectiveId) {
+
         // 1) CaseParticipation 중 탐정 ID가 내가 맞는 참여 찾기
         List<CaseParticipation> participations =
                 participationRepository.findAllByDetectiveId(detectiveId);
@@ -159,7 +187,7 @@ public class CaseService {
                     if (info == null) return null;
 
                     // STATUS='배정' 상태인 사건만 탐정에게 보여야 함
-                    if (!"배정".equals(info.getStatus())) return null;
+                    if (info.getStatus() != CaseStatus.ASSIGNED) return null;
 
                     // 경찰/의뢰인 닉네임
                     String clientNickname = appUserRepository.findById(p.getClientId())
@@ -187,8 +215,13 @@ public class CaseService {
     }
 
 
-    /** 5. 탐정 - 완료된 사건 조회 (STATUS='결과 확인') */
+    /** 5. 탐정 - 완료된 사건 조회 (STATUS='결과 확인', 보관된 사건이 앞에 옴) */
     public List<CaseDetectiveDto> getCompletedCasesByDetectiveId(Long detectiveId) {
+        return withArchived(shardRouter.scatter(() -> archiveReader.getCompletedCasesByDetectiveId(detectiveId)),
+                shardRouter.scatter(() -> completedCasesByDetectiveId(detectiveId)));
+    }
+
+    private List<CaseDetectiveDto> completedCasesByDetectiveId(Long detectiveId) {
 
         List<CaseParticipation> participations =
                 participationRepository.findAllByDetectiveId(detectiveId);
@@ -199,7 +232,7 @@ public class CaseService {
                     if (info == null) return null;
 
                     // 🚨 STATUS = '결과 확인'만
-                    if (!"결과 확인".equals(info.getStatus())) return null;
+                    if (info.getStatus() != CaseStatus.CLOSED) return null;
 
                     String clientNickname = appUserRepository.findById(p.getClientId())
                             .map(AppUser::getNickname).orElse("미정");
@@ -231,8 +264,13 @@ public class CaseService {
     }
 
 
-    /** 6. 의뢰인 - 의뢰한 사건 조회 */
+    /** 6. 의뢰인 - 의뢰한 사건 조회 (보관된 사건이 앞에 옴) */
     public List<CaseClientDto> getCasesByClientId(Long clientId) {
+        return withArchived(shardRouter.scatter(() -> archiveReader.getCasesByClientId(clientId)),
+                shardRouter.scatter(() -> casesByClientId(clientId)));
+    }
+
+    private List<CaseClientDto> casesByClientId(Long clientId) {
         // 1. clientId로 CaseParticipation 목록 조회
         List<CaseParticipation> participations = participationRepository.findAllByClientId(clientId);
 
@@ -242,10 +280,10 @@ public class CaseService {
                     Optional<CaseInfo> caseInfoOpt = caseInfoRepository.findById(p.getCaseId());
                     return caseInfoOpt.map(info -> {
                         // CaseInfo와 CaseParticipation의 데이터를 CaseClientDto로 조합
-                        String status = info.getStatus();
+                        CaseStatus status = info.getStatus();
                         String result = null; // CaseClientDto에 따라 CaseResult 도메인이 있다면 추가 조회가 필요함
 
-                        if ("결과 확인".equals(status)) {
+                        if (status == CaseStatus.CLOSED) {
                             result = p.getIsSolved() != null ? (p.getIsSolved() ? "감사" : "부고") : "미정";
                         }
 
@@ -271,7 +309,7 @@ public class CaseService {
 
     /** 7. 경찰 - 탐정 배정 대기 중인 사건 조회 (STATUS='조작') */
     public List<CaseInfo> getPendingCasesForPolice() {
-        return caseInfoRepository.findAllByStatus("조작"); // STATUS가 '조작'인 사건 반환
+        return shardRouter.scatter(() -> caseInfoRepository.findAllByStatus(CaseStatus.FABRICATED)); // STATUS가 '조작'인 사건 반환
     }
 
     /** 8. 범인 - 조작 참여 가능 사건 조회 (STATUS='등록') */
@@ -288,11 +326,12 @@ public class CaseService {
         FROM case_participation cp
         JOIN case_info c ON cp.case_id = c.case_id
         JOIN app_user u ON cp.client_id = u.user_id
-        WHERE c.status = '등록'
+        WHERE c.status = ?
         AND cp.criminal_id IS NULL
         """;
 
-        return jdbcTemplate.query(sql, (rs, rowNum) ->
+        // app_user 는 샤드마다 조인용 복사본이 있으므로 샤드별로 그대로 조인
+        return shardRouter.scatter(() -> jdbcTemplate.query(sql, (rs, rowNum) ->
                 AvailableCaseDto.builder()
                         .activeId(rs.getLong("active_id"))
                         .caseId(rs.getLong("case_id"))
@@ -300,14 +339,20 @@ public class CaseService {
                         .caseDescription(rs.getString("content"))
                         .difficulty(rs.getInt("difficulty"))
                         .clientNickname(rs.getString("client_nickname"))
-                        .build()
-        );
+                        .build(),
+                CaseStatus.REGISTERED.getCode()
+        ));
     }
 
 
     // 9. 범인 - 참여한 사건 조회
     // 9. 범인 - 내가 참여한 사건 조회 (MyCaseDto)
     public List<MyCaseDto> getCulpritMyCases(Long culpritId) {
+        return withArchived(shardRouter.scatter(() -> archiveReader.getCulpritCases(culpritId)),
+                shardRouter.scatter(() -> culpritMyCases(culpritId)));
+    }
+
+    private List<MyCaseDto> culpritMyCases(Long culpritId) {
 
         List<CaseParticipation> participations =
                 participationRepository.findAllByCriminalId(culpritId);
@@ -317,7 +362,7 @@ public class CaseService {
                     CaseInfo info = caseInfoRepository.findById(p.getCaseId()).orElse(null);
                     if (info == null) return null;
 
-                    boolean fakeSelected = "조작".equals(info.getStatus());
+                    boolean fakeSelected = info.getStatus() == CaseStatus.FABRICATED;
 
                     return MyCaseDto.builder()
                             .caseId(info.getCaseId())
@@ -338,15 +383,28 @@ public class CaseService {
                 .collect(Collectors.toList());
     }
 
+    // 보관된(오래된) 사건 뒤에 현재 사건을 붙임
+    private static <T> List<T> withArchived(List<T> archived, List<T> active) {
+        if (archived.isEmpty()) return active;
+        List<T> merged = new ArrayList<>(archived);
+        merged.addAll(active);
+        return merged;
+    }
+
 
     /** 10. 의뢰인 - 사건 의뢰 처리 (CaseParticipation 생성) */
-    @Transactional
     public CaseInfo startCaseByClient(Long caseId, Long clientId) {
+        return shardRouter.inCaseTransaction(caseId, () -> clientStart(caseId, clientId));
+    }
+
+    private CaseInfo clientStart(Long caseId, Long clientId) {
+        caseEventStore.lockCase(caseId);
+
         // 1. CaseInfo 상태 확인 및 유효성 검사 (STATUS='등록' 상태의 사건만 의뢰 가능)
         CaseInfo caseInfo = caseInfoRepository.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("사건을 찾을 수 없습니다."));
 
-        if (!"등록".equals(caseInfo.getStatus())) {
+        if (caseInfo.getStatus() != CaseStatus.REGISTERED) {
             throw new IllegalStateException("이미 의뢰가 진행 중이거나 마감된 사건입니다.");
         }
 
@@ -355,7 +413,9 @@ public class CaseService {
                 .caseId(caseId)
                 .clientId(clientId)
                 .build();
-        participationRepository.save(newParticipation);
+        CaseParticipation saved = participationRepository.save(newParticipation);
+        caseEventStore.append(caseId, CaseEventType.CLIENT_STARTED, clientId, saved.getPartId(), null);
+        invalidationBus.publish(EntityType.CASE, caseId);
 
         // 3. (옵션) 의뢰 시점에서 CaseInfo의 상태를 변경할 수도 있지만,
         //    대부분의 경우 '등록' 상태를 유지하고 범인/경찰 액션 시점에 상태가 변경됩니다.
@@ -364,8 +424,13 @@ public class CaseService {
     }
 
     /** 11. 범인 - 사건 참여 처리 (CRIMINAL_ID 등록 및 점수 +1) */
-    @Transactional
     public CaseInfo handleJoinCulprit(Long caseId, Long culpritId) {
+        return shardRouter.inCaseTransaction(caseId, () -> joinCulprit(caseId, culpritId));
+    }
+
+    private CaseInfo joinCulprit(Long caseId, Long culpritId) {
+        caseEventStore.lockCase(caseId);
+
         // 1. 참여 정보 업데이트 (CRIMINAL_ID 등록 및 점수 +1)
         CaseParticipation participation = participationRepository.findByCaseId(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("참여 레코드를 찾을 수 없습니다."));
@@ -377,6 +442,8 @@ public class CaseService {
 
         participation.setCriminalId(culpritId);
         participationRepository.save(participation);
+        caseEventStore.append(caseId, CaseEventType.CULPRIT_JOINED, culpritId);
+        invalidationBus.publish(EntityType.CASE, caseId);
 
         // 2. 범인 점수 +1 업데이트 및 로그 기록 (재사용 가능한 updateUserScore 헬퍼 메서드 사용)
         updateUserScore(culpritId, 1, caseId, "범인 참여 (초기 점수)");
@@ -385,20 +452,23 @@ public class CaseService {
         CaseInfo caseInfo = caseInfoRepository.findById(caseId).orElseThrow();
 
         // 상태는 아직 '등록'을 유지하며, 증거 조작 완료 후 '조작'으로 변경됩니다.
-        // caseInfo.setStatus("조작"); // 🚨 조작 완료 시점에 변경되므로 여기서는 변경하지 않습니다.
+        // caseInfo.setStatus(CaseStatus.FABRICATED); // 🚨 조작 완료 시점에 변경되므로 여기서는 변경하지 않습니다.
 
         return caseInfo;
     }
 
     // 🚨 [추가됨] 12. 범인 - 증거 조작용 사건 상세 및 증거 목록 조회
-    @Transactional(readOnly = true)
     public Map<String, Object> getEvidenceDetailsForFabrication(Long caseId) {
+        return shardRouter.onCase(caseId, () -> evidenceDetailsForFabrication(caseId));
+    }
+
+    private Map<String, Object> evidenceDetailsForFabrication(Long caseId) {
         // A. CaseInfo 조회
         CaseInfo caseInfo = caseInfoRepository.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("사건을 찾을 수 없습니다."));
 
-        // B. OriginalEvidence 전체 목록 조회 (진짜 + 거짓 후보 모두 포함)
-        List<OriginalEvidence> allEvidences = originalEvidenceRepository.findAllByCaseId(caseId);
+        // B. OriginalEvidence 전체 목록 조회 (진짜 + 거짓 후보 모두 포함, 캐시 사용)
+        List<OriginalEvidence> allEvidences = evidenceCatalog.get(caseId).all();
 
         // C. 결과를 Map으로 구성하여 반환 (프론트엔드 기대 구조와 일치)
         return Map.of(
@@ -408,8 +478,12 @@ public class CaseService {
         );
     }
 
-    @Transactional
     public CaseInfo handlePoliceAccept(Long caseId, Long policeId) {
+        return shardRouter.inCaseTransaction(caseId, () -> policeAccept(caseId, policeId));
+    }
+
+    private CaseInfo policeAccept(Long caseId, Long policeId) {
+        caseEventStore.lockCase(caseId);
 
         CaseParticipation participation = participationRepository.findByCaseId(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("참여 레코드를 찾을 수 없습니다."));
@@ -422,14 +496,20 @@ public class CaseService {
         CaseInfo caseInfo = caseInfoRepository.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("사건을 찾을 수 없습니다."));
 
-        caseInfo.setStatus("접수중");
+        caseInfo.setStatus(CaseStatus.RECEIVED);
+        caseEventStore.append(caseId, CaseEventType.POLICE_ACCEPTED, policeId);
+        invalidationBus.publish(EntityType.CASE, caseId);
         return caseInfoRepository.save(caseInfo);
     }
 
     public List<PendingCaseDto> getPendingCasesForPoliceFull() {
+        return shardRouter.scatter(this::pendingCasesForPoliceFull);
+    }
+
+    private List<PendingCaseDto> pendingCasesForPoliceFull() {
 
         // 조작 또는 접수중 사건 조회
-        List<CaseInfo> caseInfos = caseInfoRepository.findAllByStatusIn(List.of("조작", "접수중"));
+        List<CaseInfo> caseInfos = caseInfoRepository.findAllByStatusIn(List.of(CaseStatus.FABRICATED, CaseStatus.RECEIVED));
 
         return caseInfos.stream().map(info -> {
 
@@ -0,0 +1,139 @@
+package me.junyi.service;
+
+import jakarta.annotation.PreDestroy;
+import me.junyi.config.Tracer;
+import me.junyi.config.TracingDataSource;
+import me.junyi.domain.Role;
+import me.junyi.dto.DashboardDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 역할별 대시보드 한 번에 조회.
+ * 역할에 필요한 목록(섹션)들을 전용 스레드 풀에서 병렬로 조회하며, 각 섹션은 별도 커넥션을 사용합니다.
+ * 섹션마다 시간 예산을 넘기면 그 섹션만 빼고 부분 응답을 돌려줍니다.
+ * 남은 예산은 섹션의 SQL 문마다 쿼리 타임아웃으로도 걸려서, 늦은 섹션의 조회는 DB 에서 끊기고 스레드와 커넥션을 돌려줍니다.
+ * 사건 목록은 CASE_PROJECTION(CaseProjectionReader)에서 한 번의 조회로 읽습니다.
+ */
+@Service
+public class DashboardService {
+
+    private final CaseService caseService;
+    private final CaseProjectionReader projectionReader;
+    private final RankingService rankingService;
+    private final long sectionTimeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardService(CaseService caseService, CaseProjectionReader projectionReader,
+                            RankingService rankingService,
+                            @Value("${dbterm.dashboard.threads:4}") int threads,
+                            @Value("${dbterm.dashboard.queue-capacity:64}") int queueCapacity,
+                            @Value("${dbterm.dashboard.section-timeout-ms:1000}") long sectionTimeoutMs) {
+        this.caseService = caseService;
+        this.projectionReader = projectionReader;
+        this.rankingService = rankingService;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "dashboard-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public DashboardDto getDashboard(Role role, Long userId) {
+        long start = System.nanoTime();
+
+        Map<String, Supplier<Object>> sections = sectionsFor(role, userId);
+
+        // 1) 모든 섹션을 동시에 시작. 병렬 실행이므로 시간 예산은 시작 시점 기준으로 공통 적용
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Map<String, Future<Object>> futures = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        sections.forEach((name, query) -> {
+            Supplier<Object> task = TracingDataSource.withDeadline(deadline, Tracer.propagate(name, query));
+            try {
+                futures.put(name, executor.submit(task::get));
+            } catch (RejectedExecutionException e) {
+                failed.put(name, "대시보드 조회가 밀려 있습니다.");
+            }
+        });
+
+        // 2) 예산을 넘긴 섹션은 작업 스레드를 인터럽트해 취소 (실행 중인 SQL 은 쿼리 타임아웃으로 끊김)
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        futures.forEach((name, future) -> {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(name, future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timedOut.add(name);
+            } catch (ExecutionException e) {
+                failed.put(name, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                timedOut.add(name);
+            }
+        });
+
+        return DashboardDto.builder()
+                .role(role)
+                .userId(userId)
+                .sections(results)
+                .partial(!timedOut.isEmpty() || !failed.isEmpty())
+                .timedOut(timedOut)
+                .failed(failed)
+                .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+    }
+
+    // 역할별로 프론트엔드 대시보드가 첫 화면에 필요로 하는 목록
+    private Map<String, Supplier<Object>> sectionsFor(Role role, Long userId) {
+        Map<String, Supplier<Object>> sections = new LinkedHashMap<>();
+        switch (role) {
+            case CLIENT -> {
+                sections.put("myCases", () -> projectionReader.getCasesByClientId(userId));
+                sections.put("availableCases", caseService::getAvailableCases);
+            }
+            case CULPRIT -> {
+                sections.put("availableCases", projectionReader::getAvailableCasesForCulprit);
+                sections.put("myCases", () -> projectionReader.getCulpritMyCases(userId));
+            }
+            case POLICE -> {
+                sections.put("pendingCases", projectionReader::getPendingCasesForPolice);
+                sections.put("detectives", rankingService::getDetectives);
+            }
+            case DETECTIVE -> {
+                sections.put("assignedCases", () -> projectionReader.getAssignedCasesByDetectiveId(userId));
+                sections.put("completedCases", () -> projectionReader.getCompletedCasesByDetectiveId(userId));
+            }
+        }
+        return sections;
+    }
+}
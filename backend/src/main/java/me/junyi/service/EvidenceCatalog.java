@@ -0,0 +1,155 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseInfo;
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.OriginalEvidence;
+import me.junyi.repository.CaseInfoRepository;
+import me.junyi.repository.OriginalEvidenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 사건별 원본 증거(ORIGINAL_EVIDENCE) 캐시.
+ * 원본 증거는 사건 생성 이후 변하지 않으므로 caseId 단위로 한 번만 조회해 불변 리스트로 보관합니다.
+ * 증거를 일괄 적재(import)하는 경로는 CacheInvalidationBus 로 EVIDENCE 변경을 발행해 모든 인스턴스에서 비우도록 합니다.
+ */
+@Component
+public class EvidenceCatalog implements InvalidatableCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EvidenceCatalog.class);
+
+    // 객체 헤더 + 참조 필드 등 증거 1건당 대략적인 고정 비용 (bytes)
+    private static final long EVIDENCE_OVERHEAD_BYTES = 96;
+
+    private final OriginalEvidenceRepository originalEvidenceRepository;
+    private final CaseInfoRepository caseInfoRepository;
+    private final ShardRouter shardRouter;
+    private final boolean preload;
+
+    private final Map<Long, CaseEvidence> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EvidenceCatalog(OriginalEvidenceRepository originalEvidenceRepository,
+                           CaseInfoRepository caseInfoRepository, ShardRouter shardRouter,
+                           @Value("${dbterm.evidence-cache.preload:false}") boolean preload) {
+        this.originalEvidenceRepository = originalEvidenceRepository;
+        this.caseInfoRepository = caseInfoRepository;
+        this.shardRouter = shardRouter;
+        this.preload = preload;
+    }
+
+    /** 진짜 증거와 거짓 증거 후보를 분리해 보관하는 불변 묶음 */
+    public record CaseEvidence(List<OriginalEvidence> trueEvidences, List<OriginalEvidence> fakeCandidates) {
+
+        static CaseEvidence of(List<OriginalEvidence> evidences) {
+            Map<Boolean, List<OriginalEvidence>> split = evidences.stream()
+                    .collect(Collectors.partitioningBy(e -> Boolean.TRUE.equals(e.getIsFakeCandidate())));
+            return new CaseEvidence(List.copyOf(split.get(false)), List.copyOf(split.get(true)));
+        }
+
+        /** 진짜 + 거짓 후보 전체 목록 */
+        public List<OriginalEvidence> all() {
+            List<OriginalEvidence> all = new ArrayList<>(trueEvidences.size() + fakeCandidates.size());
+            all.addAll(trueEvidences);
+            all.addAll(fakeCandidates);
+            return List.copyOf(all);
+        }
+
+        long estimatedBytes() {
+            long bytes = 0;
+            for (OriginalEvidence e : trueEvidences) bytes += EVIDENCE_OVERHEAD_BYTES + 2L * e.getDescription().length();
+            for (OriginalEvidence e : fakeCandidates) bytes += EVIDENCE_OVERHEAD_BYTES + 2L * e.getDescription().length();
+            return bytes;
+        }
+    }
+
+    /** 사건의 증거 조회 (캐시에 없으면 DB에서 읽어 채움) */
+    public CaseEvidence get(Long caseId) {
+        CaseEvidence cached = cache.get(caseId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        // 같은 사건을 동시에 찾으면 한 스레드만 읽으므로 실제로 읽은 경우만 miss, 나머지는 그 결과를 받은 hit
+        boolean[] loaded = {false};
+        CaseEvidence evidence = cache.computeIfAbsent(caseId, id -> {
+            loaded[0] = true;
+            misses.increment();
+            List<OriginalEvidence> rows = shardRouter.onCase(id, () -> originalEvidenceRepository.findAllByCaseId(id));
+            // 없는 사건이거나 아직 증거가 적재되기 전이면 캐시하지 않음 (null 이면 저장 안 됨)
+            return rows.isEmpty() ? null : CaseEvidence.of(rows);
+        });
+        if (evidence == null) return CaseEvidence.of(List.of());
+        if (!loaded[0]) hits.increment();
+        return evidence;
+    }
+
+    public void invalidate(Long caseId) {
+        cache.remove(caseId);
+    }
+
+    @Override
+    public void invalidate(EntityType type, long id) {
+        // 원본 증거는 사건 상태가 바뀌어도 그대로이므로 증거 변경 통지에만 반응
+        if (type == EntityType.EVIDENCE) cache.remove(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /** 시작 시 '등록', '조작' 상태 사건의 증거를 미리 적재 (dbterm.evidence-cache.preload=true) */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadActiveCases() {
+        if (!preload) return;
+        // 샤딩 시 샤드마다 따로 적재
+        List<Long> loaded = shardRouter.scatter(this::preloadShard);
+        if (loaded.isEmpty()) return;
+        log.info("Evidence catalog preloaded: {}", stats());
+    }
+
+    private List<Long> preloadShard() {
+        List<Long> caseIds = caseInfoRepository
+                .findAllByStatusIn(List.of(CaseStatus.REGISTERED, CaseStatus.FABRICATED)).stream()
+                .map(CaseInfo::getCaseId)
+                .toList();
+        if (caseIds.isEmpty()) return caseIds;
+
+        Map<Long, List<OriginalEvidence>> byCase = originalEvidenceRepository.findAllByCaseIdIn(caseIds).stream()
+                .collect(Collectors.groupingBy(OriginalEvidence::getCaseId));
+
+        // 증거가 없는 사건은 get() 과 마찬가지로 비워 둠
+        byCase.forEach((caseId, evidences) -> cache.put(caseId, CaseEvidence.of(evidences)));
+        return caseIds;
+    }
+
+    /** 캐시 크기, 추정 메모리 사용량, 적중률 */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        long bytes = cache.values().stream().mapToLong(CaseEvidence::estimatedBytes).sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cases", cache.size());
+        stats.put("estimatedBytes", bytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+}
@@ -0,0 +1,110 @@
+package me.junyi.service;
+
+import me.junyi.service.ExportService.Dataset;
+import me.junyi.service.ExportService.Format;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 내보내기 CLI. dbterm.export.dataset 이 주어지면 파일로 내보낸 뒤 종료합니다.
+ *
+ *   java -jar dbterm.jar --spring.main.web-application-type=none \
+ *        --dbterm.export.dataset=score_log --dbterm.export.out=score_log.ndjson.gz \
+ *        [--dbterm.export.from=2025-03-01T00:00:00 --dbterm.export.to=2025-09-01T00:00:00]
+ *
+ * 형식은 dbterm.export.format 또는 파일 확장자(.csv / .ndjson)로 정하고, .gz 로 끝나면 gzip 으로 압축합니다.
+ * 임시 파일에 쓴 뒤 끝까지 성공했을 때만 대상 경로로 옮깁니다. Ctrl+C 로 중단하면 진행 중인 쿼리를 취소합니다.
+ */
+@Component
+public class ExportCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportCommand.class);
+
+    private final ExportService exportService;
+    private final ConfigurableApplicationContext context;
+    private final String dataset;
+    private final String format;
+    private final String out;
+    private final String from;
+    private final String to;
+
+    public ExportCommand(ExportService exportService, ConfigurableApplicationContext context,
+                         @Value("${dbterm.export.dataset:}") String dataset,
+                         @Value("${dbterm.export.format:}") String format,
+                         @Value("${dbterm.export.out:}") String out,
+                         @Value("${dbterm.export.from:}") String from,
+                         @Value("${dbterm.export.to:}") String to) {
+        this.exportService = exportService;
+        this.context = context;
+        this.dataset = dataset;
+        this.format = format;
+        this.out = out;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (dataset.isBlank()) return;
+
+        int exitCode = 0;
+        try {
+            export();
+        } catch (RuntimeException | IOException e) {
+            log.error("Export failed: {}", e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void export() throws IOException {
+        Dataset ds = Dataset.parse(dataset);
+        Path target = Path.of(out.isBlank() ? ds.name().toLowerCase() + ".ndjson.gz" : out);
+        String name = target.getFileName().toString();
+        boolean gzip = name.endsWith(".gz");
+        Format fmt = !format.isBlank() ? Format.parse(format)
+                : name.replace(".gz", "").endsWith(Format.CSV.extension()) ? Format.CSV : Format.NDJSON;
+
+        Path absolute = target.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tmp = absolute.resolveSibling(name + ".tmp");
+
+        ExportService.Job job = exportService.start(ds, fmt);
+        Map<String, Object> report;
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            if (gzip) {
+                GZIPOutputStream zip = new GZIPOutputStream(file, 64 * 1024);
+                report = exportService.run(job, zip, parse(from), parse(to));
+                zip.finish();
+            } else {
+                report = exportService.run(job, file, parse(from), parse(to));
+            }
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Exported {} to {} ({} bytes): {}", ds, absolute, Files.size(absolute), report);
+    }
+
+    private static LocalDateTime parse(String value) {
+        return value.isBlank() ? null : LocalDateTime.parse(value);
+    }
+}
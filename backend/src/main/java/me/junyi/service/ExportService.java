@@ -0,0 +1,393 @@
+package me.junyi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SCORE_LOG / CASE_PARTICIPATION / CASE_INFO 스트리밍 내보내기 (NDJSON, CSV).
+ * 서버 측 커서(fetch size)로 읽은 행을 바로 출력 스트림에 쓰므로 행 수와 관계없이 힙 사용량이 일정합니다.
+ * 진행 중인 작업은 ID 로 조회·취소할 수 있고, 끝나면 처리량(행/초)을 남깁니다.
+ * 아카이브된 score_log 세그먼트 파일은 대상이 아닙니다 (DB 에 붙어 있는 파티션만).
+ * 사건 샤딩 시 사건 테이블은 샤드 순서대로 이어서 내보내며(정렬은 샤드 안에서만), 기간 조건은 쓸 수 없습니다.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final int fetchSize;
+
+    private final Map<Long, Job> running = new ConcurrentHashMap<>();
+    private final AtomicLong jobSeq = new AtomicLong();
+
+    public ExportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                         ShardRouter shardRouter,
+                         @Value("${dbterm.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.fetchSize = fetchSize;
+    }
+
+    /** 내보낼 수 있는 테이블 (사건 테이블은 보관분 포함). from/to 가 주어지면 그 기간(시즌)의 점수 기록과 관련 사건만 */
+    public enum Dataset {
+        SCORE_LOG("SELECT log_id, user_id, case_id, score_change, reason, log_time FROM score_log",
+                " WHERE log_time >= ? AND log_time < ?",
+                " ORDER BY log_time, log_id"),
+        CASE_PARTICIPATION("SELECT * FROM (SELECT part_id, case_id, client_id, criminal_id, police_id, detective_id,"
+                + " detective_guess_id, is_solved FROM case_participation"
+                + " UNION ALL SELECT part_id, case_id, client_id, criminal_id, police_id, detective_id,"
+                + " detective_guess_id, is_solved FROM case_participation_archive) p",
+                " WHERE case_id IN (SELECT case_id FROM score_log WHERE log_time >= ? AND log_time < ?)",
+                " ORDER BY part_id"),
+        CASE_INFO("SELECT * FROM (SELECT case_id, title, content, difficulty, true_criminal_id, status FROM case_info"
+                + " UNION ALL SELECT case_id, title, content, difficulty, true_criminal_id, status FROM case_info_archive) c",
+                " WHERE case_id IN (SELECT case_id FROM score_log WHERE log_time >= ? AND log_time < ?)",
+                " ORDER BY case_id");
+
+        private final String select;
+        private final String period;
+        private final String order;
+
+        Dataset(String select, String period, String order) {
+            this.select = select;
+            this.period = period;
+            this.order = order;
+        }
+
+        // 사건 샤드에 있는 테이블
+        boolean caseScoped() {
+            return this != SCORE_LOG;
+        }
+
+        String sql(boolean withPeriod) {
+            return select + (withPeriod ? period : "") + order;
+        }
+
+        /** "score_log", "case-info" 등 URL/CLI 표기 허용 */
+        public static Dataset parse(String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", ".ndjson"),
+        CSV("text/csv", ".csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /** 진행 중인 내보내기 작업 (취소 및 진행률 조회용) */
+    public static final class Job {
+        private final long id;
+        private final Dataset dataset;
+        private final Format format;
+        private final long startNanos = System.nanoTime();
+        private volatile long rows;
+        private volatile boolean cancelled;
+        private volatile Statement statement;
+
+        private Job(long id, Dataset dataset, Format format) {
+            this.id = id;
+            this.dataset = dataset;
+            this.format = format;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        /** 다음 행에서 멈추고, DB 에서 다음 묶음을 기다리는 중이면 쿼리도 취소 */
+        public void cancel() {
+            cancelled = true;
+            Statement st = statement;
+            if (st != null) {
+                try {
+                    st.cancel();
+                } catch (SQLException e) {
+                    log.debug("Export {} statement cancel failed: {}", id, e.getMessage());
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public Map<String, Object> progress() {
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("id", id);
+            progress.put("dataset", dataset);
+            progress.put("format", format);
+            progress.put("rows", rows);
+            progress.put("elapsedMs", Math.round(seconds * 1000));
+            progress.put("rowsPerSecond", seconds == 0 ? rows : Math.round(rows / seconds));
+            progress.put("cancelled", cancelled);
+            return progress;
+        }
+    }
+
+    /** 기간(from/to) 조건을 쓸 수 있는지. 샤딩 시 사건 테이블은 전역 DB 의 score_log 와 조인할 수 없어서 불가 */
+    public boolean supportsPeriod(Dataset dataset) {
+        return !(dataset.caseScoped() && shardRouter.isEnabled());
+    }
+
+    /**
+     * 작업 생성 (실제 쓰기 전에 ID 를 응답 헤더 등으로 알려줄 수 있도록 분리).
+     * 진행 중 목록에는 run() 이 시작될 때 등록하므로, 응답 본문이 끝내 실행되지 않아도(클라이언트 이탈 등) 남지 않습니다.
+     */
+    public Job start(Dataset dataset, Format format) {
+        return new Job(jobSeq.incrementAndGet(), dataset, format);
+    }
+
+    /**
+     * 작업을 실행해 out 에 씁니다 (out 은 닫지 않음). 끝나면 처리량 리포트를 반환합니다.
+     * 취소되면 IllegalStateException, 출력 스트림이 끊기면(클라이언트 연결 종료 등) UncheckedIOException.
+     */
+    public Map<String, Object> run(Job job, OutputStream out, LocalDateTime from, LocalDateTime to) {
+        boolean withPeriod = from != null || to != null;
+        if (withPeriod && !supportsPeriod(job.dataset)) {
+            throw new IllegalArgumentException("사건 샤딩 중에는 " + job.dataset + " 를 기간으로 내보낼 수 없습니다.");
+        }
+        Timestamp start = Timestamp.valueOf(from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0));
+        Timestamp end = Timestamp.valueOf(to != null ? to : LocalDateTime.now().plusYears(100));
+
+        running.put(job.id, job);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+            RowWriter rowWriter = job.format == Format.NDJSON ? new NdjsonWriter(writer) : new CsvWriter(writer);
+
+            // 커서는 트랜잭션 안에서만 동작 (autocommit 이면 드라이버가 전체 결과를 한 번에 가져옴)
+            boolean[] headerWritten = {false};
+            Runnable export = () -> transactionTemplate.execute(status -> {
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(job.dataset.sql(withPeriod),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    if (withPeriod) {
+                        ps.setTimestamp(1, start);
+                        ps.setTimestamp(2, end);
+                    }
+                    job.statement = ps;
+                    return ps;
+                }, (ResultSetExtractor<Void>) rs -> {
+                    try {
+                        if (!headerWritten[0]) {
+                            rowWriter.header(rs.getMetaData());
+                            headerWritten[0] = true;
+                        }
+                        while (rs.next()) {
+                            if (job.cancelled) throw new IllegalStateException("내보내기가 취소되었습니다.");
+                            rowWriter.row(rs);
+                            job.rows++;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                });
+                return null;
+            });
+            if (job.dataset.caseScoped()) {
+                shardRouter.eachShard(() -> {
+                    if (!job.cancelled) export.run();
+                    return null;
+                });
+            } else {
+                export.run();
+            }
+            if (job.cancelled) throw new IllegalStateException("내보내기가 취소되었습니다.");
+
+            rowWriter.finish();
+            writer.flush();
+
+            Map<String, Object> report = job.progress();
+            log.info("Export finished: {}", report);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            // 취소로 쿼리가 중단된 경우 드라이버 예외 대신 취소로 알림
+            if (job.cancelled && !(e instanceof IllegalStateException)) {
+                throw new IllegalStateException("내보내기가 취소되었습니다.", e);
+            }
+            throw e;
+        } finally {
+            job.statement = null;
+            running.remove(job.id);
+        }
+    }
+
+    public boolean cancel(long jobId) {
+        Job job = running.get(jobId);
+        if (job == null) return false;
+        job.cancel();
+        return true;
+    }
+
+    public List<Map<String, Object>> runningJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        running.values().forEach(job -> jobs.add(job.progress()));
+        return jobs;
+    }
+
+    @PreDestroy
+    public void cancelAll() {
+        running.values().forEach(Job::cancel);
+    }
+
+    // 행 단위 출력 형식
+    private interface RowWriter {
+        void header(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    // 한 줄에 JSON 객체 하나
+    private final class NdjsonWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator json;
+        private String[] columns;
+
+        NdjsonWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException, IOException {
+            columns = columnNames(meta);
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                json.writeFieldName(columns[i]);
+                if (value == null) json.writeNull();
+                else if (value instanceof Number n) json.writeNumber(n.toString());
+                else if (value instanceof Boolean b) json.writeBoolean(b);
+                else json.writeString(text(value));
+            }
+            json.writeEndObject();
+            json.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (json != null) json.close();
+        }
+    }
+
+    // RFC 4180 CSV (첫 줄은 컬럼 이름)
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+        private int columnCount;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException, IOException {
+            String[] columns = columnNames(meta);
+            columnCount = columns.length;
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) writer.write(',');
+                Object value = rs.getObject(i);
+                if (value != null) writeField(text(value));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static String[] columnNames(ResultSetMetaData meta) throws SQLException {
+        String[] columns = new String[meta.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) columns[i] = meta.getColumnLabel(i + 1);
+        return columns;
+    }
+
+    private static String text(Object value) {
+        return value instanceof Timestamp ts ? ts.toLocalDateTime().toString() : value.toString();
+    }
+}
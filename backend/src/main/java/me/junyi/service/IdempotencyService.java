@@ -0,0 +1,323 @@
+package me.junyi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 헤더가 붙은 워크플로우 POST 요청의 응답 재사용.
+ *
+ * - 같은 (scope, key) 로 동시에 들어온 요청은 하나만 실행하고 나머지는 그 결과를 기다렸다가 같은 응답을 받습니다.
+ * - 성공(2xx) 응답은 워크플로우와 같은 트랜잭션에서 idempotency_key 테이블에 저장되므로, 샤딩을 끄면
+ *   점수 반영과 응답 기록이 함께 커밋되거나 함께 롤백됩니다. 이후 재시도는 워크플로우 테이블을 건드리지 않고 저장된 응답을 받습니다.
+ *   샤딩을 켜면 사건 쪽 변경은 사건 샤드에서 따로 커밋되고 점수는 그 뒤 ScoreOutbox 가 반영하므로, 응답 기록과 한 트랜잭션이
+ *   아닙니다. 응답 저장이 실패하면 사건 전이와 점수는 남은 채 키가 풀리고, 같은 키로 재시도하면 워크플로우를 다시 실행합니다.
+ * - 최근 응답은 크기 제한이 있는 메모리 캐시(LRU)에도 두어 대부분의 재시도는 DB 조회도 하지 않습니다.
+ * - 실패(4xx/5xx) 응답은 저장하지 않고 선점도 풀어서, 같은 키로 다시 시도할 수 있게 합니다.
+ * - 같은 키를 다른 요청 본문으로 보내면 422 로 거절합니다.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter fingerprintWriter;
+    private final long ttlHours;
+    private final long claimTimeoutMs;
+    private final long waitTimeoutMs;
+
+    // 처리 중인 요청 (같은 키의 동시 요청이 기다리는 대상)
+    private final Map<String, CompletableFuture<StoredResponse>> inflight = new ConcurrentHashMap<>();
+    // 최근 저장된 응답 (접근 순서 LRU)
+    private final Map<String, StoredResponse> recent;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              @Value("${dbterm.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${dbterm.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${dbterm.idempotency.claim-timeout-ms:60000}") long claimTimeoutMs,
+                              @Value("${dbterm.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.fingerprintWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.ttlHours = ttlHours;
+        this.claimTimeoutMs = claimTimeoutMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * key 가 없으면 action 을 그대로 실행합니다.
+     * key 가 있으면 scope 안에서 한 번만 실행하고, 같은 키의 재시도/동시 요청에는 처음 응답을 돌려줍니다.
+     *
+     * @param scope   엔드포인트 구분 (같은 키라도 엔드포인트가 다르면 별개)
+     * @param request 요청 본문 (같은 키에 다른 본문이 오는지 확인하는 용도)
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("error", HEADER + " 는 " + MAX_KEY_LENGTH + "자 이하여야 합니다."));
+        }
+        byte[] fingerprint = fingerprint(request);
+        String cacheKey = scope + ":" + key;
+
+        StoredResponse cached = recent.get(cacheKey);
+        if (cached != null && !cached.isExpired(ttlHours)) {
+            memoryHits.increment();
+            return replay(cached, fingerprint);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inflight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running, fingerprint);
+        }
+        try {
+            StoredResponse result = executeOnce(scope, key, cacheKey, fingerprint, action);
+            mine.complete(result);
+            return result.original != null ? result.original : replay(result, fingerprint);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(cacheKey, mine);
+        }
+    }
+
+    // 이 인스턴스에서 처음 들어온 요청: DB 에 저장된 응답을 찾거나 선점한 뒤 실행
+    private StoredResponse executeOnce(String scope, String key, String cacheKey, byte[] fingerprint,
+                                       Supplier<ResponseEntity<?>> action) {
+        try {
+            StoredResponse stored = claim(scope, key, fingerprint);
+            if (stored != null) {
+                if (stored.statusCode > 0) {
+                    storeHits.increment();
+                    recent.put(cacheKey, stored);
+                } else {
+                    conflicts.increment();
+                }
+                return stored;
+            }
+        } catch (DataAccessException e) {
+            return StoredResponse.of(ResponseEntity.internalServerError()
+                    .body(Map.of("error", "DB 처리 중 오류: " + e.getMostSpecificCause().getMessage())));
+        }
+
+        executed.increment();
+        StoredResponse[] result = new StoredResponse[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ResponseEntity<?> response = action.get();
+                result[0] = StoredResponse.of(response);
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    // 실패한 워크플로우는 저장하지 않음 (서비스 트랜잭션은 이미 롤백 대상)
+                    status.setRollbackOnly();
+                    return;
+                }
+                result[0] = result[0].withBody(toJson(response.getBody()), fingerprint);
+                jdbcTemplate.update("UPDATE idempotency_key SET status_code = ?, response_body = ? "
+                                + "WHERE scope = ? AND idem_key = ?",
+                        result[0].statusCode, result[0].body, scope, key);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Idempotent request {} failed: {}", cacheKey, e.getMessage());
+            release(scope, key);
+            return StoredResponse.of(ResponseEntity.internalServerError()
+                    .body(Map.of("error", "DB 처리 중 오류: " + e.getMessage())));
+        }
+
+        if (result[0].body != null) {
+            recent.put(cacheKey, result[0].withoutOriginal());
+        } else {
+            release(scope, key);
+        }
+        return result[0];
+    }
+
+    /**
+     * 키 선점. 선점하면 null, 이미 응답이 저장돼 있으면 그 응답,
+     * 다른 곳에서 처리 중이면 statusCode 가 0 인 응답(409)을 돌려줍니다.
+     * 처리 중 표시가 claimTimeoutMs 보다 오래됐으면 중단된 것으로 보고 다시 선점합니다.
+     */
+    private StoredResponse claim(String scope, String key, byte[] fingerprint) {
+        int inserted = jdbcTemplate.update("INSERT INTO idempotency_key (scope, idem_key, fingerprint) VALUES (?, ?, ?) "
+                + "ON CONFLICT (scope, idem_key) DO NOTHING", scope, key, fingerprint);
+        if (inserted == 1) return null;
+
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status_code, response_body, created_at FROM idempotency_key "
+                        + "WHERE scope = ? AND idem_key = ?",
+                (rs, rowNum) -> new StoredResponse(rs.getInt("status_code"), rs.getString("response_body"),
+                        rs.getBytes("fingerprint"), rs.getTimestamp("created_at").toLocalDateTime(), null),
+                scope, key);
+        if (rows.isEmpty()) {
+            // 조회 사이에 선점이 풀림 → 한 번 더 시도
+            inserted = jdbcTemplate.update("INSERT INTO idempotency_key (scope, idem_key, fingerprint) VALUES (?, ?, ?) "
+                    + "ON CONFLICT (scope, idem_key) DO NOTHING", scope, key, fingerprint);
+            return inserted == 1 ? null : StoredResponse.IN_PROGRESS;
+        }
+        StoredResponse row = rows.get(0);
+        if (row.statusCode > 0) return row;
+
+        int taken = jdbcTemplate.update("UPDATE idempotency_key SET fingerprint = ?, created_at = CURRENT_TIMESTAMP "
+                        + "WHERE scope = ? AND idem_key = ? AND status_code IS NULL AND created_at < ?",
+                fingerprint, scope, key, LocalDateTime.now().minus(Duration.ofMillis(claimTimeoutMs)));
+        return taken == 1 ? null : StoredResponse.IN_PROGRESS;
+    }
+
+    private void release(String scope, String key) {
+        try {
+            jdbcTemplate.update("DELETE FROM idempotency_key WHERE scope = ? AND idem_key = ? AND status_code IS NULL",
+                    scope, key);
+        } catch (DataAccessException e) {
+            // 남은 선점은 claimTimeoutMs 가 지나면 다시 가져갈 수 있음
+            log.warn("Could not release idempotency key {}:{}: {}", scope, key, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> await(CompletableFuture<StoredResponse> running, byte[] fingerprint) {
+        try {
+            return replay(running.get(waitTimeoutMs, TimeUnit.MILLISECONDS), fingerprint);
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            return replay(StoredResponse.IN_PROGRESS, fingerprint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.internalServerError().body(Map.of("error", "요청 처리가 중단되었습니다."));
+        } catch (ExecutionException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", "DB 처리 중 오류: " + e.getCause().getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, byte[] fingerprint) {
+        if (stored.statusCode == 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "같은 " + HEADER + " 의 요청이 아직 처리 중입니다."));
+        }
+        if (stored.fingerprint != null && !MessageDigest.isEqual(stored.fingerprint, fingerprint)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(Map.of("error", "같은 " + HEADER + " 로 다른 요청을 보낼 수 없습니다."));
+        }
+        if (stored.body == null) return stored.original;
+        return ResponseEntity.status(stored.statusCode)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body);
+    }
+
+    /** 보존 기간이 지난 응답 삭제 */
+    @Scheduled(fixedDelayString = "${dbterm.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${dbterm.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM idempotency_key WHERE created_at < ?",
+                    LocalDateTime.now().minusHours(ttlHours));
+            if (deleted > 0) log.info("Purged {} expired idempotency keys", deleted);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cached", recent.size());
+        stats.put("inflight", inflight.size());
+        stats.put("executed", executed.sum());
+        stats.put("memoryHits", memoryHits.sum());
+        stats.put("storeHits", storeHits.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("conflicts", conflicts.sum());
+        stats.put("ttlHours", ttlHours);
+        return stats;
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(fingerprintWriter.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("요청 지문 계산 실패", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 저장된 응답. statusCode 0 은 다른 곳에서 처리 중이라는 뜻.
+     * original 은 이 인스턴스에서 방금 실행한 응답 (직렬화 전 객체), body 는 저장된 JSON.
+     */
+    private record StoredResponse(int statusCode, String body, byte[] fingerprint, LocalDateTime createdAt,
+                                  ResponseEntity<?> original) {
+
+        static final StoredResponse IN_PROGRESS = new StoredResponse(0, null, null, null, null);
+
+        static StoredResponse of(ResponseEntity<?> response) {
+            return new StoredResponse(response.getStatusCode().value(), null, null, LocalDateTime.now(), response);
+        }
+
+        StoredResponse withBody(String json, byte[] fingerprint) {
+            return new StoredResponse(statusCode, json, fingerprint, createdAt, original);
+        }
+
+        StoredResponse withoutOriginal() {
+            return new StoredResponse(statusCode, body, fingerprint, createdAt, null);
+        }
+
+        boolean isExpired(long ttlHours) {
+            return createdAt.isBefore(LocalDateTime.now().minusHours(ttlHours));
+        }
+    }
+}
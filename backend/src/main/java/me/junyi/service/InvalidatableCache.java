@@ -0,0 +1,43 @@
+package me.junyi.service;
+
+/**
+ * 다른 인스턴스의 쓰기로 무효화되어야 하는 프로세스 내부 캐시.
+ * 빈으로 등록하면 CacheInvalidationBus 가 자동으로 변경 통지를 전달합니다.
+ */
+public interface InvalidatableCache {
+
+    /** 엔티티 한 건이 변경됨 */
+    void invalidate(EntityType type, long id);
+
+    /** 통지를 놓쳤을 수 있으므로 전체 비우기 (리스너 연결 복구 등) */
+    void invalidateAll();
+
+    /** 이 인스턴스가 직접 쓴 변경도 비울지 (쓰면서 캐시를 이미 최신으로 갱신했다면 false) */
+    default boolean invalidateOwnWrites() {
+        return true;
+    }
+
+    enum EntityType {
+        USER('U'),
+        CASE('C'),
+        EVIDENCE('E'), // 사건 하나의 원본 증거 (id = caseId)
+        FEED('F');     // 사용자 한 명의 활동 피드 (id = userId)
+
+        private final char code;
+
+        EntityType(char code) {
+            this.code = code;
+        }
+
+        public char code() {
+            return code;
+        }
+
+        public static EntityType fromCode(char code) {
+            for (EntityType type : values()) {
+                if (type.code == code) return type;
+            }
+            throw new IllegalArgumentException("알 수 없는 엔티티 코드: " + code);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package me.junyi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.junyi.config.BinaryCodecConfig;
+import me.junyi.domain.CaseStatus;
+import me.junyi.dto.AvailableCaseDto;
+import me.junyi.dto.DetectiveRankingDto;
+import me.junyi.dto.PendingCaseDto;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 응답 형식(JSON / CBOR / Smile) 비교 측정.
+ * 대표 응답(탐정 랭킹, 경찰 대기 사건, 범인 참여 가능 사건)을 형식별로 직렬화해서
+ * 크기(원본, gzip), 직렬화/역직렬화 1회당 CPU 시간을 잽니다.
+ *
+ * source=live 는 현재 DB 데이터, synthetic 은 DB 없이 만든 같은 모양의 데이터(rows 건)를 씁니다.
+ */
+@Component
+public class PayloadCodecBenchmark {
+
+    static final String RANKING = "ranking/detectives";
+    static final String PENDING = "cases/police/pending";
+    static final String AVAILABLE = "cases/culprit/available";
+
+    private final BinaryCodecConfig codecs;
+    private final RankingService rankingService;
+    private final CaseService caseService;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public PayloadCodecBenchmark(BinaryCodecConfig codecs, RankingService rankingService, CaseService caseService) {
+        this.codecs = codecs;
+        this.rankingService = rankingService;
+        this.caseService = caseService;
+    }
+
+    public Map<String, Object> run(String source, int rows, int iterations) {
+        boolean live = "live".equalsIgnoreCase(source);
+        if (!live && !"synthetic".equalsIgnoreCase(source)) {
+            throw new IllegalArgumentException("source 는 live 또는 synthetic 이어야 합니다: " + source);
+        }
+        if (iterations < 1 || rows < 1) throw new IllegalArgumentException("iterations, rows 는 1 이상이어야 합니다.");
+
+        Map<String, Supplier<Object>> payloads = new LinkedHashMap<>();
+        payloads.put(RANKING, live ? rankingService::getDetectives : () -> synthetic(RANKING, rows));
+        payloads.put(PENDING, live ? caseService::getPendingCasesForPoliceFull : () -> synthetic(PENDING, rows));
+        payloads.put(AVAILABLE, live ? caseService::getAvailableCasesForCulprit : () -> synthetic(AVAILABLE, rows));
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", codecs.jsonMapper());
+        formats.put("cbor", codecs.cborMapper());
+        formats.put("smile", codecs.smileMapper());
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (Map.Entry<String, Supplier<Object>> payload : payloads.entrySet()) {
+            Object value = payload.getValue().get();
+            long jsonBytes = -1;
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                Map<String, Object> row = measure(format.getValue(), value, iterations);
+                long bytes = (long) row.get("bytes");
+                if (jsonBytes < 0) jsonBytes = bytes;
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("payload", payload.getKey());
+                result.put("format", format.getKey());
+                result.put("rows", value instanceof List<?> list ? list.size() : 1);
+                result.putAll(row);
+                result.put("sizeVsJson", jsonBytes > 0 ? (double) bytes / jsonBytes : null);
+                results.add(result);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("source", live ? "live" : "synthetic");
+        report.put("iterations", iterations);
+        report.put("results", results);
+        return report;
+    }
+
+    private Map<String, Object> measure(ObjectMapper mapper, Object value, int iterations) {
+        try {
+            byte[] encoded = mapper.writeValueAsBytes(value);
+            // JIT 예열
+            for (int i = 0; i < Math.max(10, iterations / 2); i++) {
+                mapper.readTree(mapper.writeValueAsBytes(value));
+            }
+
+            long cpu = threads.getCurrentThreadCpuTime();
+            long wall = System.nanoTime();
+            for (int i = 0; i < iterations; i++) mapper.writeValueAsBytes(value);
+            long writeCpu = threads.getCurrentThreadCpuTime() - cpu;
+            long writeWall = System.nanoTime() - wall;
+
+            cpu = threads.getCurrentThreadCpuTime();
+            for (int i = 0; i < iterations; i++) mapper.readTree(encoded);
+            long readCpu = threads.getCurrentThreadCpuTime() - cpu;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("bytes", (long) encoded.length);
+            row.put("gzipBytes", gzipSize(encoded));
+            row.put("serializeCpuUs", writeCpu / 1000.0 / iterations);
+            row.put("serializeWallUs", writeWall / 1000.0 / iterations);
+            row.put("deserializeCpuUs", readCpu / 1000.0 / iterations);
+            return row;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    // --- DB 없이 쓰는 표본 데이터 (닉네임/사건 제목이 여러 행에서 반복되는 실제 분포를 흉내냄) ---
+
+    private static final String[] NICKNAMES = {"명탐정코난", "셜록홈즈", "괴도키드", "포와로", "미스마플", "에르퀼", "김전일", "아케치"};
+    private static final String[] TITLES = {"사라진 보석 사건", "밀실 살인 사건", "도서관 방화 사건", "열차 독살 사건", "한밤의 협박 편지"};
+    private static final String DESCRIPTION = "현장에서 발견된 증거와 목격자 진술이 서로 맞지 않습니다. 사건 당일의 동선을 다시 확인해야 합니다.";
+
+    static Object synthetic(String payload, int rows) {
+        return switch (payload) {
+            case RANKING -> syntheticRanking(rows);
+            case PENDING -> syntheticPending(rows);
+            case AVAILABLE -> syntheticAvailable(rows);
+            default -> throw new IllegalArgumentException("알 수 없는 payload: " + payload);
+        };
+    }
+
+    private static List<DetectiveRankingDto> syntheticRanking(int rows) {
+        List<DetectiveRankingDto> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(DetectiveRankingDto.builder()
+                    .userId((long) i + 1)
+                    .nickname(NICKNAMES[i % NICKNAMES.length] + (i / NICKNAMES.length))
+                    .score(10_000 - i * 7)
+                    .totalCases((long) (i % 40))
+                    .successRate((i * 37 % 1000) / 10.0)
+                    .rank(i + 1)
+                    .build());
+        }
+        return list;
+    }
+
+    private static List<PendingCaseDto> syntheticPending(int rows) {
+        List<PendingCaseDto> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(PendingCaseDto.builder()
+                    .activeId((long) i + 1)
+                    .caseId((long) (i % 50) + 1)
+                    .caseTitle(TITLES[i % TITLES.length])
+                    .caseDescription(DESCRIPTION)
+                    .clientNickname(NICKNAMES[i % NICKNAMES.length])
+                    .culpritNickname(NICKNAMES[(i + 3) % NICKNAMES.length])
+                    .status(i % 2 == 0 ? CaseStatus.FABRICATED : CaseStatus.RECEIVED)
+                    .difficulty(i % 5 + 1)
+                    .build());
+        }
+        return list;
+    }
+
+    private static List<AvailableCaseDto> syntheticAvailable(int rows) {
+        List<AvailableCaseDto> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(AvailableCaseDto.builder()
+                    .caseId((long) (i % 50) + 1)
+                    .activeId((long) i + 1)
+                    .caseTitle(TITLES[i % TITLES.length])
+                    .caseDescription(DESCRIPTION)
+                    .clientNickname(NICKNAMES[i % NICKNAMES.length])
+                    .difficulty(i % 5 + 1)
+                    .build());
+        }
+        return list;
+    }
+}
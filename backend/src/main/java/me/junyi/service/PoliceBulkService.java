@@ -0,0 +1,265 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseEvent;
+import me.junyi.domain.CaseEventType;
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.Role;
+import me.junyi.dto.BulkPoliceRequest.Assignment;
+import me.junyi.dto.BulkResultDto;
+import me.junyi.service.InvalidatableCache.EntityType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 경찰 일괄 처리 (사건 접수 / 탐정 배정).
+ * 요청 전체를 한 트랜잭션에서 처리합니다. 사건 샤딩 시에는 샤드별로 나눠 샤드마다 한 트랜잭션이며,
+ * 점수(전역 DB)는 샤드 트랜잭션 안의 outbox 에 남겼다가 샤드가 커밋된 뒤 반영합니다 (ScoreOutbox).
+ * 1) 모든 항목을 한 번의 조회로 검증하고
+ * 2) 상태 변경 → 참여 정보 → 점수 → 이벤트 순으로 각각 JDBC 배치 한 번씩 실행합니다.
+ * 검증에 실패한 항목이나 그 사이 다른 요청이 상태를 바꾼 항목은 건너뛰고, 항목별 결과로 사유를 돌려줍니다.
+ */
+@Service
+public class PoliceBulkService {
+
+    private static final String ASSIGN_POLICE_REASON = "경찰 배정 (초기 점수)";
+    private static final String ASSIGN_DETECTIVE_REASON = "탐정 배정 (초기 점수)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CaseEventStore caseEventStore;
+    private final EvidenceCatalog evidenceCatalog;
+    private final CacheInvalidationBus invalidationBus;
+    private final ShardRouter shardRouter;
+    private final ScoreOutbox scoreOutbox;
+    private final int maxItems;
+
+    public PoliceBulkService(JdbcTemplate jdbcTemplate, CaseEventStore caseEventStore,
+                             EvidenceCatalog evidenceCatalog, CacheInvalidationBus invalidationBus,
+                             ShardRouter shardRouter, ScoreOutbox scoreOutbox,
+                             @Value("${dbterm.police-bulk.max-items:500}") int maxItems) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.caseEventStore = caseEventStore;
+        this.evidenceCatalog = evidenceCatalog;
+        this.invalidationBus = invalidationBus;
+        this.shardRouter = shardRouter;
+        this.scoreOutbox = scoreOutbox;
+        this.maxItems = maxItems;
+    }
+
+    /** 일괄 접수: '조작' → '접수중', 경찰 ID 등록 */
+    public BulkResultDto acceptAll(Long policeId, List<Long> caseIds) {
+        long start = System.nanoTime();
+        checkSize(caseIds);
+
+        List<Candidate> candidates = shardRouter.inShardGroups(caseIds,
+                positions -> accept(policeId, pick(caseIds, positions)));
+        return result(candidates, CaseStatus.RECEIVED, start);
+    }
+
+    private List<Candidate> accept(Long policeId, List<Long> caseIds) {
+        List<Candidate> candidates = validate(policeId, caseIds, null);
+        for (Candidate c : candidates) {
+            if (c.error == null && c.status != CaseStatus.FABRICATED) {
+                c.error = "접수할 수 없는 상태입니다: " + c.status.getLabel();
+            }
+        }
+
+        List<Candidate> applied = updateStatus(candidates, CaseStatus.RECEIVED);
+        if (!applied.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE case_participation SET police_id = ? WHERE part_id = ?",
+                    applied.stream().map(c -> new Object[]{policeId, c.partId}).toList());
+
+            caseEventStore.appendAll(applied.stream()
+                    .map(c -> event(c.caseId, CaseEventType.POLICE_ACCEPTED, policeId, null))
+                    .toList());
+            applied.forEach(c -> invalidationBus.publish(EntityType.CASE, c.caseId));
+        }
+        return candidates;
+    }
+
+    /** 일괄 배정: '조작'/'접수중' → '배정', 경찰·탐정 ID 등록 및 초기 점수(경찰 +2, 탐정 +1) */
+    public BulkResultDto assignAll(Long policeId, List<Assignment> assignments) {
+        long start = System.nanoTime();
+        checkSize(assignments);
+
+        List<Long> caseIds = assignments.stream().map(Assignment::getCaseId).toList();
+        List<Long> detectiveIds = assignments.stream().map(Assignment::getDetectiveId).toList();
+
+        List<Candidate> candidates = shardRouter.inShardGroups(caseIds,
+                positions -> assign(policeId, pick(caseIds, positions), pick(detectiveIds, positions)));
+        return result(candidates, CaseStatus.ASSIGNED, start);
+    }
+
+    private List<Candidate> assign(Long policeId, List<Long> caseIds, List<Long> detectiveIds) {
+        List<Candidate> candidates = validate(policeId, caseIds, detectiveIds);
+        for (Candidate c : candidates) {
+            if (c.error != null) continue;
+            if (c.status != CaseStatus.FABRICATED && c.status != CaseStatus.RECEIVED) {
+                c.error = "배정할 수 없는 상태입니다: " + c.status.getLabel();
+            } else if (c.detectiveRole != Role.DETECTIVE) {
+                c.error = "탐정을 찾을 수 없습니다.";
+            }
+        }
+
+        List<Candidate> applied = updateStatus(candidates, CaseStatus.ASSIGNED);
+        if (!applied.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE case_participation SET police_id = ?, detective_id = ? WHERE part_id = ?",
+                    applied.stream().map(c -> new Object[]{policeId, c.detectiveId, c.partId}).toList());
+
+            // 점수 로그는 사건마다 두 건 (사용자 점수는 ScoreOutbox 가 사용자별로 합산해 한 번씩)
+            LocalDateTime now = LocalDateTime.now();
+            List<ScoreOutbox.Entry> scores = new ArrayList<>(applied.size() * 2);
+            for (Candidate c : applied) {
+                scores.add(new ScoreOutbox.Entry(policeId, c.caseId, 2, ASSIGN_POLICE_REASON, now));
+                scores.add(new ScoreOutbox.Entry(c.detectiveId, c.caseId, 1, ASSIGN_DETECTIVE_REASON, now));
+            }
+            scoreOutbox.addAll(scores);
+
+            caseEventStore.appendAll(applied.stream()
+                    .map(c -> event(c.caseId, CaseEventType.DETECTIVE_ASSIGNED, policeId, c.detectiveId))
+                    .toList());
+
+            for (Candidate c : applied) {
+                invalidationBus.publish(EntityType.CASE, c.caseId);
+                // 배정 이후에는 증거 조작 화면이 없으므로 캐시에서 제거
+                evidenceCatalog.invalidate(c.caseId);
+            }
+        }
+        return candidates;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("처리할 사건이 없습니다.");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 사건은 최대 " + maxItems + "건입니다.");
+        }
+    }
+
+    private static <T> List<T> pick(List<T> values, List<Integer> positions) {
+        return positions.stream().map(values::get).toList();
+    }
+
+    // 요청 항목 전체(사건, 참여 정보, 탐정, 경찰)를 한 번의 조회로 확인
+    private List<Candidate> validate(Long policeId, List<Long> caseIds, List<Long> detectiveIds) {
+        if (policeId == null) {
+            throw new IllegalArgumentException("policeId는 필수입니다.");
+        }
+
+        String sql = """
+            SELECT x.ord, x.case_id, x.detective_id, c.status, p.part_id,
+                   d.role AS detective_role, pol.role AS police_role
+            FROM unnest(?::bigint[], ?::bigint[]) WITH ORDINALITY AS x(case_id, detective_id, ord)
+            LEFT JOIN case_info c ON c.case_id = x.case_id
+            LEFT JOIN LATERAL (
+                SELECT part_id FROM case_participation cp
+                WHERE cp.case_id = x.case_id ORDER BY cp.part_id DESC LIMIT 1
+            ) p ON true
+            LEFT JOIN app_user d ON d.user_id = x.detective_id
+            LEFT JOIN app_user pol ON pol.user_id = ?
+            ORDER BY x.ord
+            """;
+
+        Long[] detectives = detectiveIds != null ? detectiveIds.toArray(Long[]::new) : new Long[caseIds.size()];
+        List<Candidate> candidates = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", caseIds.toArray(Long[]::new)));
+            ps.setArray(2, con.createArrayOf("bigint", detectives));
+            ps.setLong(3, policeId);
+            return ps;
+        }, (rs, rowNum) -> {
+            Candidate c = new Candidate();
+            c.caseId = rs.getObject("case_id") != null ? rs.getLong("case_id") : null;
+            c.detectiveId = rs.getObject("detective_id") != null ? rs.getLong("detective_id") : null;
+            c.status = rs.getObject("status") != null ? CaseStatus.fromCode(rs.getShort("status")) : null;
+            c.partId = rs.getObject("part_id") != null ? rs.getLong("part_id") : null;
+            c.detectiveRole = rs.getObject("detective_role") != null ? Role.fromCode(rs.getShort("detective_role")) : null;
+            c.policeRole = rs.getObject("police_role") != null ? Role.fromCode(rs.getShort("police_role")) : null;
+            return c;
+        });
+
+        if (candidates.get(0).policeRole != Role.POLICE) {
+            throw new IllegalArgumentException("경찰을 찾을 수 없습니다.");
+        }
+
+        Set<Long> seen = new HashSet<>();
+        for (Candidate c : candidates) {
+            if (c.caseId == null || c.status == null) {
+                c.error = "사건을 찾을 수 없습니다.";
+            } else if (!seen.add(c.caseId)) {
+                c.error = "같은 요청에 중복된 사건입니다.";
+            } else if (c.partId == null) {
+                c.error = "참여 레코드를 찾을 수 없습니다.";
+            }
+        }
+        return candidates;
+    }
+
+    // 검증을 통과한 항목의 상태를 배치로 변경. 조회 이후 다른 요청이 상태를 바꾼 사건(갱신 0건)은 실패 처리
+    private List<Candidate> updateStatus(List<Candidate> candidates, CaseStatus next) {
+        List<Candidate> valid = candidates.stream().filter(c -> c.error == null).toList();
+        if (valid.isEmpty()) return valid;
+
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE case_info SET status = ? WHERE case_id = ? AND status = ?",
+                valid.stream().map(c -> new Object[]{next.getCode(), c.caseId, c.status.getCode()}).toList());
+
+        List<Candidate> applied = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            if (counts[i] == 0) {
+                valid.get(i).error = "처리 중 다른 요청에서 사건 상태가 변경되었습니다.";
+            } else {
+                applied.add(valid.get(i));
+            }
+        }
+        return applied;
+    }
+
+    private static CaseEvent event(Long caseId, CaseEventType type, Long actorId, Long subjectId) {
+        return CaseEvent.builder()
+                .caseId(caseId)
+                .eventType(type)
+                .actorId(actorId)
+                .subjectId(subjectId)
+                .build();
+    }
+
+    private static BulkResultDto result(List<Candidate> candidates, CaseStatus next, long start) {
+        List<BulkResultDto.Item> items = candidates.stream()
+                .map(c -> BulkResultDto.Item.builder()
+                        .caseId(c.caseId)
+                        .success(c.error == null)
+                        .newStatus(c.error == null ? next : null)
+                        .error(c.error)
+                        .build())
+                .toList();
+        int succeeded = (int) items.stream().filter(BulkResultDto.Item::getSuccess).count();
+
+        return BulkResultDto.builder()
+                .requested(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .results(items)
+                .build();
+    }
+
+    // 검증 조회 한 행 + 처리 결과
+    private static final class Candidate {
+        Long caseId;
+        Long detectiveId;
+        CaseStatus status;
+        Long partId;
+        Role detectiveRole;
+        Role policeRole;
+        String error;
+    }
+}
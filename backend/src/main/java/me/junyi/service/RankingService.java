@@ -0,0 +1,92 @@
+package me.junyi.service;
+
+import me.junyi.domain.Role;
+import me.junyi.dto.DetectiveRankingDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class RankingService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public RankingService(JdbcTemplate jdbcTemplate, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    /** 탐정 랭킹 (점수 내림차순, 순위 포함). 사건 수/성공률에는 보관된 사건도 포함 */
+    public List<DetectiveRankingDto> getDetectives() {
+        if (shardRouter.isEnabled()) return getDetectivesSharded();
+
+        String sql = """
+            SELECT 
+                u.user_id AS "userId",
+                u.nickname AS "nickname",
+                u.score AS "score",
+                COUNT(p.part_id) AS "totalCases",
+                COALESCE(
+                    AVG(CASE WHEN p.is_solved = TRUE THEN 1 ELSE 0 END) * 100,
+                    0
+                ) AS "successRate"
+            FROM app_user u
+            LEFT JOIN (
+                SELECT part_id, detective_id, is_solved FROM case_participation
+                UNION ALL
+                SELECT part_id, detective_id, is_solved FROM case_participation_archive
+            ) p
+                ON u.user_id = p.detective_id
+            WHERE u.role = ?
+            GROUP BY u.user_id, u.nickname, u.score
+            ORDER BY u.score DESC;
+        """;
+
+        // 순위는 정렬 순서대로 부여
+        return jdbcTemplate.query(sql, (rs, rowNum) -> DetectiveRankingDto.builder()
+                .userId(rs.getLong("userId"))
+                .nickname(rs.getString("nickname"))
+                .score(rs.getInt("score"))
+                .totalCases(rs.getLong("totalCases"))
+                .successRate(rs.getDouble("successRate"))
+                .rank(rowNum + 1)
+                .build(), Role.DETECTIVE.getCode());
+    }
+
+    // 샤딩 시: 탐정별 사건 수/해결 수는 샤드마다 집계해 더하고, 점수는 전역 DB 의 app_user 에서 읽어 합침
+    private List<DetectiveRankingDto> getDetectivesSharded() {
+        String countSql = """
+            SELECT detective_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE is_solved = TRUE) AS solved
+            FROM (
+                SELECT detective_id, is_solved FROM case_participation
+                UNION ALL
+                SELECT detective_id, is_solved FROM case_participation_archive
+            ) p
+            WHERE detective_id IS NOT NULL
+            GROUP BY detective_id
+        """;
+
+        Map<Long, long[]> counts = new HashMap<>();
+        shardRouter.scatter(() -> jdbcTemplate.query(countSql, (rs, rowNum) ->
+                        new long[]{rs.getLong("detective_id"), rs.getLong("total"), rs.getLong("solved")}))
+                .forEach(row -> counts.merge(row[0], new long[]{row[1], row[2]},
+                        (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]}));
+
+        return jdbcTemplate.query("SELECT user_id, nickname, score FROM app_user WHERE role = ? ORDER BY score DESC",
+                (rs, rowNum) -> {
+                    long[] c = counts.getOrDefault(rs.getLong("user_id"), new long[2]);
+                    return DetectiveRankingDto.builder()
+                            .userId(rs.getLong("user_id"))
+                            .nickname(rs.getString("nickname"))
+                            .score(rs.getInt("score"))
+                            .totalCases(c[0])
+                            .successRate(c[0] == 0 ? 0 : c[1] * 100.0 / c[0])
+                            .rank(rowNum + 1)
+                            .build();
+                }, Role.DETECTIVE.getCode());
+    }
+}
@@ -0,0 +1,65 @@
+package me.junyi.service;
+
+import me.junyi.domain.ScoreLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자 점수 내역 조회.
+ * 최근 데이터는 SCORE_LOG 파티션에서, 보존 기간이 지난 데이터는 압축 세그먼트 파일에서 읽어 합칩니다.
+ */
+@Service
+public class ScoreHistoryService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ScoreLogSegmentStore segmentStore;
+
+    public ScoreHistoryService(JdbcTemplate jdbcTemplate, ScoreLogSegmentStore segmentStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.segmentStore = segmentStore;
+    }
+
+    /** [from, to) 구간의 점수 내역 (시간순) */
+    public List<ScoreLog> getHistory(Long userId, LocalDateTime from, LocalDateTime to) {
+        // 아카이브 직후 파티션 삭제 전의 짧은 구간에는 양쪽에 같은 로그가 있을 수 있으므로 log_id 로 중복 제거
+        Map<Long, ScoreLog> merged = new LinkedHashMap<>();
+
+        YearMonth firstMonth = YearMonth.from(from);
+        YearMonth lastMonth = YearMonth.from(to.minusNanos(1));
+        for (YearMonth month : segmentStore.archivedMonths()) {
+            if (month.isBefore(firstMonth) || month.isAfter(lastMonth)) continue;
+            segmentStore.read(month, log -> log.getUserId().equals(userId)
+                            && !log.getLogTime().isBefore(from) && log.getLogTime().isBefore(to))
+                    .forEach(log -> merged.putIfAbsent(log.getLogId(), log));
+        }
+
+        String sql = """
+            SELECT log_id, user_id, case_id, score_change, reason, log_time
+            FROM score_log
+            WHERE user_id = ? AND log_time >= ? AND log_time < ?
+            """;
+        jdbcTemplate.query(sql, rs -> {
+            ScoreLog log = ScoreLog.builder()
+                    .logId(rs.getLong("log_id"))
+                    .userId(rs.getLong("user_id"))
+                    .caseId(rs.getLong("case_id"))
+                    .scoreChange(rs.getInt("score_change"))
+                    .reason(rs.getString("reason"))
+                    .logTime(rs.getTimestamp("log_time").toLocalDateTime())
+                    .build();
+            merged.putIfAbsent(log.getLogId(), log);
+        }, userId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+
+        return merged.values().stream()
+                .sorted(Comparator.comparing(ScoreLog::getLogTime).thenComparing(ScoreLog::getLogId))
+                .toList();
+    }
+}
@@ -0,0 +1,215 @@
+package me.junyi.service;
+
+import me.junyi.domain.ScoreLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SCORE_LOG 월 파티션 관리.
+ * 1) 앞으로 쓸 월 파티션을 미리 생성하고
+ * 2) 보존 기간이 지난 파티션은 압축 세그먼트 파일로 내보낸 뒤 DETACH / DROP 합니다.
+ *    같은 트랜잭션에서 사용자별 합계를 score_log_archived_total 에 남겨 점수 정합성 점검(ScoreReconciler)이 파일 없이 씁니다.
+ * 파티션 이름 규칙(score_log_pYYYYMM)은 database/migration/002_score_log_partitioning.sql 과 같습니다.
+ * 여러 인스턴스가 함께 떠 있어도 한 곳에서만 하도록 advisory lock 을 잡고 실행하며,
+ * 세그먼트는 공유 디렉터리(dbterm.score-log.archive-dir)에만 쓰므로 설정이 없으면 아카이브는 건너뜁니다.
+ */
+@Component
+public class ScoreLogArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreLogArchiver.class);
+
+    private static final String PARTITION_PREFIX = "score_log_p";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    // pg_advisory_xact_lock 키 (다른 작업의 잠금과 겹치지 않는 임의의 상수)
+    private static final long MAINTENANCE_LOCK = 0x53434F52454C4F47L; // "SCORELOG"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScoreLogSegmentStore segmentStore;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public ScoreLogArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ScoreLogSegmentStore segmentStore,
+                            @Value("${dbterm.score-log.partition.months-ahead:3}") int monthsAhead,
+                            @Value("${dbterm.score-log.retention-months:12}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.segmentStore = segmentStore;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        // DB 에 붙지 못해도 기동은 계속하고, 다음 정기 점검에서 다시 시도
+        try {
+            ensurePartitions();
+        } catch (DataAccessException e) {
+            log.warn("Could not ensure score_log partitions at startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${dbterm.score-log.maintenance-cron:0 0 3 * * *}")
+    public void runMaintenance() {
+        ensurePartitions();
+        backfillArchivedTotals();
+        archiveColdPartitions();
+    }
+
+    /** 이번 달부터 monthsAhead 개월 뒤까지의 파티션 생성 (동시에 기동한 인스턴스끼리는 잠금으로 차례대로) */
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, MAINTENANCE_LOCK);
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF score_log FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            }
+        });
+    }
+
+    /**
+     * 보존 기간(retentionMonths)이 지난 파티션을 세그먼트 파일로 내보내고 삭제. 아카이브한 월 목록을 반환.
+     * 다른 인스턴스가 아카이브 중이면 기다리지 않고 건너뜁니다.
+     */
+    public List<YearMonth> archiveColdPartitions() {
+        if (!segmentStore.isConfigured()) {
+            log.warn("dbterm.score-log.archive-dir is not set; keeping cold score_log partitions");
+            return List.of();
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<YearMonth> cold = livePartitions().stream()
+                .filter(month -> month.isBefore(cutoff))
+                .toList();
+
+        List<YearMonth> archived = new ArrayList<>();
+        for (YearMonth month : cold) {
+            Long rows = transactionTemplate.execute(status -> archive(month));
+            if (rows == null) {
+                log.info("score_log maintenance is running on another instance; skipping archive");
+                break;
+            }
+            archived.add(month);
+            log.info("Archived score_log partition {} ({} rows)", partitionName(month), rows);
+        }
+        return archived;
+    }
+
+    // 한 달치: 잠금 → 세그먼트 기록 → DETACH / DROP 을 한 트랜잭션에서. 잠금을 못 잡거나 이미 없는 파티션이면 null
+    // (세그먼트 파일이 확정된 뒤에만 파티션을 떼어내고, 그 뒤 커밋이 실패하면 다음 실행에서 다시 내보냄)
+    private Long archive(YearMonth month) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                MAINTENANCE_LOCK);
+        if (!Boolean.TRUE.equals(locked)) return null;
+        // 목록을 읽은 뒤 다른 인스턴스가 이미 아카이브함
+        if (!livePartitions().contains(month)) return null;
+
+        long rows = export(month);
+        jdbcTemplate.update("INSERT INTO score_log_archived_total (month, user_id, total)"
+                + " SELECT ?, user_id, sum(score_change) FROM " + partitionName(month) + " GROUP BY user_id"
+                + " ON CONFLICT (month, user_id) DO UPDATE SET total = EXCLUDED.total", month.atDay(1));
+        jdbcTemplate.execute("ALTER TABLE score_log DETACH PARTITION " + partitionName(month));
+        jdbcTemplate.execute("DROP TABLE " + partitionName(month));
+        return rows;
+    }
+
+    /**
+     * score_log_archived_total 이 생기기 전에 아카이브한 월의 사용자별 합계를 세그먼트 파일에서 채움.
+     * 채운 월 목록을 반환하며, 다른 인스턴스가 점검 중이면 건너뜁니다.
+     */
+    public List<YearMonth> backfillArchivedTotals() {
+        if (!segmentStore.isConfigured()) return List.of();
+        List<YearMonth> filled = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    MAINTENANCE_LOCK);
+            if (!Boolean.TRUE.equals(locked)) return List.of();
+
+            List<YearMonth> live = livePartitions();
+            List<YearMonth> recorded = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT month FROM score_log_archived_total", Date.class).stream()
+                    .map(date -> YearMonth.from(date.toLocalDate()))
+                    .toList();
+            List<YearMonth> missing = segmentStore.archivedMonths().stream()
+                    .filter(month -> !live.contains(month) && !recorded.contains(month))
+                    .toList();
+            for (YearMonth month : missing) {
+                Map<Long, Long> totals = new HashMap<>();
+                segmentStore.scan(month, entry -> totals.merge(entry.getUserId(), (long) entry.getScoreChange(), Long::sum));
+                jdbcTemplate.batchUpdate("INSERT INTO score_log_archived_total (month, user_id, total) VALUES (?, ?, ?)",
+                        totals.entrySet().stream()
+                                .map(e -> new Object[]{month.atDay(1), e.getKey(), e.getValue()})
+                                .toList());
+            }
+            return missing;
+        });
+        if (!filled.isEmpty()) log.info("Backfilled archived score_log totals for {}", filled);
+        return filled;
+    }
+
+    /** 현재 DB 에 붙어 있는 월 파티션 목록 (오름차순) */
+    public List<YearMonth> livePartitions() {
+        String sql = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'score_log'
+            """;
+        return jdbcTemplate.queryForList(sql, String.class).stream()
+                .filter(name -> name.startsWith(PARTITION_PREFIX))
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), MONTH))
+                .sorted()
+                .toList();
+    }
+
+    // 파티션 한 개를 서버 측 커서로 읽어가며 세그먼트에 기록 (힙 사용량은 fetch size 로 제한, 트랜잭션 안에서 호출)
+    private long export(YearMonth month) {
+        long[] count = {0};
+        try (ScoreLogSegmentStore.SegmentWriter writer = segmentStore.open(month)) {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT log_id, user_id, case_id, score_change, reason, log_time FROM "
+                                + partitionName(month) + " ORDER BY log_time");
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                writer.accept(ScoreLog.builder()
+                        .logId(rs.getLong("log_id"))
+                        .userId(rs.getLong("user_id"))
+                        .caseId(rs.getLong("case_id"))
+                        .scoreChange(rs.getInt("score_change"))
+                        .reason(rs.getString("reason"))
+                        .logTime(rs.getTimestamp("log_time").toLocalDateTime())
+                        .build());
+                count[0]++;
+            });
+            writer.commit();
+        }
+        return count[0];
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(MONTH);
+    }
+}
@@ -0,0 +1,180 @@
+package me.junyi.service;
+
+import me.junyi.domain.ScoreLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 아카이브된 SCORE_LOG 월 파티션을 저장하는 압축 세그먼트 파일 저장소.
+ * 파일 하나가 한 달(score_log_YYYYMM.seg.gz)이며, 레코드는 gzip 으로 압축된 고정 순서 바이너리입니다.
+ * 아카이브한 파티션은 DB 에서 지워지므로 archive-dir 은 모든 인스턴스가 같은 경로로 보는 공유 저장소(NFS 등)여야 하며,
+ * 설정하지 않으면 아카이브를 하지 않습니다(파티션을 그대로 둠).
+ */
+@Component
+public class ScoreLogSegmentStore {
+
+    private static final int MAGIC = 0x534C4731; // "SLG1"
+    private static final String PREFIX = "score_log_";
+    private static final String SUFFIX = ".seg.gz";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final Path directory;
+
+    public ScoreLogSegmentStore(@Value("${dbterm.score-log.archive-dir:}") String directory) {
+        this.directory = directory.isBlank() ? null : Paths.get(directory);
+    }
+
+    /** 공유 아카이브 디렉터리가 설정되어 있는지 */
+    public boolean isConfigured() {
+        return directory != null;
+    }
+
+    /** 레코드를 하나씩 받아 세그먼트에 기록하는 쓰기 핸들 */
+    public interface SegmentWriter extends Consumer<ScoreLog>, AutoCloseable {
+        /** 기록을 확정하고 파일을 제자리로 옮깁니다. */
+        void commit();
+
+        @Override
+        void close();
+    }
+
+    /** 한 달치 세그먼트 쓰기 시작 (commit 전에는 임시 파일에만 기록됨) */
+    public SegmentWriter open(YearMonth month) {
+        if (directory == null) {
+            throw new IllegalStateException("dbterm.score-log.archive-dir 이 설정되지 않았습니다.");
+        }
+        try {
+            Files.createDirectories(directory);
+            Path target = segmentPath(month);
+            Path temp = Files.createTempFile(directory, PREFIX, ".tmp");
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)));
+            out.writeInt(MAGIC);
+
+            return new SegmentWriter() {
+                private boolean committed;
+
+                @Override
+                public void accept(ScoreLog log) {
+                    try {
+                        out.writeLong(log.getLogId());
+                        out.writeLong(log.getUserId());
+                        out.writeLong(log.getCaseId());
+                        out.writeInt(log.getScoreChange());
+                        out.writeLong(log.getLogTime().toEpochSecond(ZoneOffset.UTC));
+                        out.writeInt(log.getLogTime().getNano());
+                        out.writeUTF(log.getReason());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void commit() {
+                    try {
+                        out.close();
+                        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        committed = true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    if (committed) return;
+                    try {
+                        out.close();
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ignored) {
+                        // 임시 파일 정리 실패는 다음 아카이브 실행에 영향을 주지 않음
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 아카이브된 월 목록 (오름차순) */
+    public List<YearMonth> archivedMonths() {
+        if (directory == null || !Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length()), MONTH))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 한 달치 세그먼트에서 조건에 맞는 레코드만 읽기 (파일 전체를 메모리에 올리지 않음) */
+    public List<ScoreLog> read(YearMonth month, Predicate<ScoreLog> filter) {
+        List<ScoreLog> result = new ArrayList<>();
+        scan(month, log -> {
+            if (filter.test(log)) result.add(log);
+        });
+        return result;
+    }
+
+    /** 한 달치 세그먼트의 레코드를 순서대로 하나씩 넘김 (집계용) */
+    public void scan(YearMonth month, Consumer<ScoreLog> consumer) {
+        if (directory == null) return;
+        Path path = segmentPath(month);
+        if (!Files.exists(path)) return;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path), 64 * 1024)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("손상된 점수 로그 세그먼트입니다: " + path);
+            }
+            while (true) {
+                long logId;
+                try {
+                    logId = in.readLong();
+                } catch (EOFException end) {
+                    break;
+                }
+                consumer.accept(ScoreLog.builder()
+                        .logId(logId)
+                        .userId(in.readLong())
+                        .caseId(in.readLong())
+                        .scoreChange(in.readInt())
+                        .logTime(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC))
+                        .reason(in.readUTF())
+                        .build());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return directory.resolve(PREFIX + month.format(MONTH) + SUFFIX);
+    }
+}
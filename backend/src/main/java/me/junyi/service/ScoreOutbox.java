@@ -0,0 +1,245 @@
+package me.junyi.service;
+
+import me.junyi.config.ShardRoutingDataSource;
+import me.junyi.service.InvalidatableCache.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사건 전이에 딸린 점수 변경 (app_user.score + score_log).
+ *
+ * 샤딩을 끄면 호출한 트랜잭션 안에서 바로 반영합니다.
+ * 켜면 사건 샤드의 트랜잭션 안에서 score_outbox 에 행을 남겨 사건 전이와 함께 커밋되게 하고,
+ * 샤드가 커밋된 뒤 그 행들을 전역 DB 에 반영합니다. 반영에 실패한 행은 샤드에 남아 주기적인 재시도(drainAll)가 처리합니다.
+ *
+ * 전역 반영은 (샤드, outbox_id) 를 score_outbox_applied 에 넣는 것과 같은 트랜잭션이라, 전역 커밋 뒤 샤드에서 행을
+ * 지우지 못해 다시 반영하더라도 점수가 두 번 더해지지 않습니다. 샤드 행은 FOR UPDATE SKIP LOCKED 로 가져오므로
+ * 여러 인스턴스가 동시에 재시도해도 같은 행을 함께 처리하지 않습니다.
+ * 샤딩 시 호출자가 보는 점수는 반영이 끝나기 전이면 이전 값일 수 있습니다 (최종적으로는 반영됨).
+ */
+@Service
+public class ScoreOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreOutbox.class);
+
+    private static final String SELECT_SQL = """
+            SELECT outbox_id, user_id, case_id, score_change, reason, log_time
+            FROM score_outbox
+            """;
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(rs.getLong("outbox_id"),
+            rs.getLong("user_id"), rs.getLong("case_id"), rs.getInt("score_change"), rs.getString("reason"),
+            rs.getTimestamp("log_time").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final CacheInvalidationBus invalidationBus;
+    private final int batchSize;
+    private final int retentionDays;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ScoreOutbox(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, CacheInvalidationBus invalidationBus,
+                       @Value("${dbterm.score-outbox.batch-size:500}") int batchSize,
+                       @Value("${dbterm.score-outbox.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.invalidationBus = invalidationBus;
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+    }
+
+    /** 점수 변경 하나 (사건 트랜잭션 안에서 호출) */
+    public void add(Long userId, Long caseId, int scoreChange, String reason) {
+        addAll(List.of(new Entry(userId, caseId, scoreChange, reason, LocalDateTime.now())));
+    }
+
+    /** 점수 변경 여러 건 (사건 트랜잭션 안에서 호출, 샤딩 시 그 사건의 샤드에 묶여 있어야 함) */
+    public void addAll(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+        if (!shardRouter.isEnabled()) {
+            apply(entries);
+            applied.add(entries.size());
+            return;
+        }
+
+        Integer shard = ShardRoutingDataSource.currentShard();
+        if (shard == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("점수 변경은 사건 샤드의 트랜잭션 안에서 기록해야 합니다.");
+        }
+        Long[] ids = insert(entries);
+        queued.add(entries.size());
+
+        // 샤드가 커밋되면 방금 남긴 행만 바로 반영 (실패하면 행이 남아 drainAll 이 다시 시도)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    drain(shard, ids);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Score outbox of shard {} not applied yet, will retry: {}", shard, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /** 샤드에 남은 outbox 행을 전역 DB 에 반영 (샤드마다 batch-size 씩 빌 때까지) */
+    @Scheduled(fixedDelayString = "${dbterm.score-outbox.retry-interval-ms:5000}",
+            initialDelayString = "${dbterm.score-outbox.retry-interval-ms:5000}")
+    public void drainAll() {
+        if (!shardRouter.isEnabled()) return;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                int drained;
+                do {
+                    drained = drain(shard, null);
+                    retried.add(drained);
+                } while (drained == batchSize);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Could not drain score outbox of shard {}", shard, e);
+            }
+        }
+    }
+
+    /** 보존 기간이 지난 반영 기록 삭제 (그보다 오래 샤드에 남아 있던 행은 없다고 봄) */
+    @Scheduled(cron = "${dbterm.score-outbox.purge-cron:0 45 4 * * *}")
+    public void purgeApplied() {
+        if (!shardRouter.isEnabled()) return;
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM score_outbox_applied WHERE applied_at < ?",
+                    LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) log.info("Purged {} applied score outbox ids", deleted);
+        } catch (DataAccessException e) {
+            log.warn("Could not purge applied score outbox ids: {}", e.getMessage());
+        }
+    }
+
+    // ids 가 null 이면 오래된 순으로 batch-size 만큼. 다른 인스턴스가 잡고 있는 행은 건너뜀
+    private int drain(int shard, Long[] ids) {
+        return shardRouter.inShardTransaction(shard, () -> {
+            List<Entry> entries = ids == null
+                    ? jdbcTemplate.query(SELECT_SQL + " ORDER BY outbox_id LIMIT ? FOR UPDATE SKIP LOCKED",
+                            ENTRY_MAPPER, batchSize)
+                    : jdbcTemplate.query(con -> {
+                        PreparedStatement ps = con.prepareStatement(SELECT_SQL
+                                + " WHERE outbox_id = ANY(?) ORDER BY outbox_id FOR UPDATE SKIP LOCKED");
+                        ps.setArray(1, con.createArrayOf("bigint", ids));
+                        return ps;
+                    }, ENTRY_MAPPER);
+            if (entries.isEmpty()) return 0;
+
+            shardRouter.runGlobal(() -> applyOnce(shard, entries));
+            jdbcTemplate.batchUpdate("DELETE FROM score_outbox WHERE outbox_id = ?",
+                    entries.stream().map(e -> new Object[]{e.outboxId()}).toList());
+            return entries.size();
+        });
+    }
+
+    // 전역 DB: 처음 보는 outbox_id 만 반영
+    private void applyOnce(int shard, List<Entry> entries) {
+        Long[] ids = entries.stream().map(Entry::outboxId).toArray(Long[]::new);
+        Set<Long> fresh = new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO score_outbox_applied (shard, outbox_id)
+                    SELECT ?, id FROM unnest(?::bigint[]) AS id
+                    ON CONFLICT DO NOTHING
+                    RETURNING outbox_id
+                    """);
+            ps.setInt(1, shard);
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+
+        List<Entry> pending = entries.stream().filter(e -> fresh.contains(e.outboxId())).toList();
+        duplicates.add(entries.size() - pending.size());
+        apply(pending);
+        applied.add(pending.size());
+    }
+
+    private Long[] insert(List<Entry> entries) {
+        List<Long> ids = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO score_outbox (user_id, case_id, score_change, reason, log_time)
+                    SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::integer[], ?::varchar[], ?::timestamp[])
+                    RETURNING outbox_id
+                    """);
+            ps.setArray(1, con.createArrayOf("bigint", entries.stream().map(Entry::userId).toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", entries.stream().map(Entry::caseId).toArray()));
+            ps.setArray(3, con.createArrayOf("integer", entries.stream().map(Entry::scoreChange).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", entries.stream().map(Entry::reason).toArray()));
+            ps.setArray(5, con.createArrayOf("timestamp",
+                    entries.stream().map(e -> Timestamp.valueOf(e.logTime())).toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+        return ids.toArray(Long[]::new);
+    }
+
+    // 사용자 점수는 사용자별로 합산해 한 번씩 (ID 순서로 잠가 교착 방지), 점수 로그는 건마다
+    private void apply(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+        Map<Long, Integer> deltas = new TreeMap<>();
+        List<Object[]> logs = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            deltas.merge(e.userId(), e.scoreChange(), Integer::sum);
+            logs.add(new Object[]{e.userId(), e.caseId(), e.scoreChange(), e.reason(), Timestamp.valueOf(e.logTime())});
+        }
+
+        List<Long> userIds = new ArrayList<>(deltas.keySet());
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE app_user SET score = score + ? WHERE user_id = ?",
+                userIds.stream().map(userId -> new Object[]{deltas.get(userId), userId}).toList());
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) throw new IllegalArgumentException("사용자를 찾을 수 없습니다: " + userIds.get(i));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO score_log (user_id, case_id, score_change, reason, log_time)"
+                + " VALUES (?, ?, ?, ?, ?)", logs);
+        userIds.forEach(userId -> invalidationBus.publish(EntityType.USER, userId));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sharded", shardRouter.isEnabled());
+        stats.put("queued", queued.sum());
+        stats.put("applied", applied.sum());
+        stats.put("retried", retried.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("failures", failures.sum());
+        if (shardRouter.isEnabled()) {
+            stats.put("pending", shardRouter.eachShard(
+                    () -> jdbcTemplate.queryForObject("SELECT count(*) FROM score_outbox", Long.class)));
+        }
+        return stats;
+    }
+
+    /** 점수 변경 한 건 (outboxId 는 샤드에 기록된 뒤에만 있음) */
+    public record Entry(Long outboxId, Long userId, Long caseId, int scoreChange, String reason, LocalDateTime logTime) {
+
+        public Entry(Long userId, Long caseId, int scoreChange, String reason, LocalDateTime logTime) {
+            this(null, userId, caseId, scoreChange, reason, logTime);
+        }
+    }
+}
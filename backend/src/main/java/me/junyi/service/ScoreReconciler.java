@@ -0,0 +1,346 @@
+package me.junyi.service;
+
+import me.junyi.service.InvalidatableCache.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * app_user.score 와 score_log 원장의 정합성 점검.
+ * user_id 를 bucketSize 폭의 구간으로 나눠 ForkJoinPool 에서 구간별로 집계합니다.
+ * 구간마다 별도 트랜잭션(= 풀에서 받은 별도 커넥션)이므로 parallelism 개의 구간이 동시에 DB 에서 집계됩니다.
+ *
+ * - 체크포인트: score_ledger 에 사용자별 확정 합계, score_reconcile_bucket 에 구간별 마지막 log_id 를 둡니다.
+ *   다음 실행은 log_id > 체크포인트 인 로그만 읽습니다. 구간마다 커밋하므로 중간에 멈춰도 이어서 할 수 있습니다.
+ * - 체크포인트는 settleMinutes 보다 오래된 로그까지만 올립니다. log_id 는 INSERT 시점에 받지만 커밋은 늦을 수 있어서,
+ *   아직 커밋되지 않은 작은 log_id 를 건너뛰지 않기 위함입니다. 그 이후 로그도 비교에는 포함됩니다.
+ * - 점수와 로그는 한 REPEATABLE READ 스냅샷에서 읽으므로 진행 중인 사건 처리로 생긴 가짜 차이는 나오지 않습니다.
+ * - 전체 점검(full, 또는 처음 보는 구간)은 파티션이 이미 삭제된 월의 합계(score_log_archived_total)도 합칩니다.
+ *   아카이브가 DETACH 와 같은 트랜잭션에서 기록하므로 스냅샷 하나에서 파티션과 합계가 겹치거나 빠지지 않고,
+ *   인스턴스에 세그먼트 파일이 있는지와 무관합니다.
+ * - repair=true 면 app_user.score 를 원장 합계에 맞춥니다. 원장에 없는 초기 점수도 지워지므로 보고서를 먼저 확인하세요.
+ *   스냅샷 이후 같은 사용자의 점수가 바뀌었으면 직렬화 오류로 구간을 다시 처리합니다.
+ * 스키마는 database/migration/006_score_ledger.sql 참고.
+ */
+@Component
+public class ScoreReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreReconciler.class);
+
+    // 커밋이 끝났다고 볼 수 있는 마지막 log_id
+    private static final String SETTLED_LOG_ID_SQL =
+            "SELECT COALESCE(max(log_id), 0) FROM score_log WHERE log_time < ?";
+
+    private static final String CLAIM_BUCKET_SQL = """
+            INSERT INTO score_reconcile_bucket (bucket, last_log_id) VALUES (?, -1)
+            ON CONFLICT (bucket) DO NOTHING
+            """;
+
+    // 같은 구간을 다른 인스턴스가 동시에 점검하지 않도록 잠금
+    private static final String LOCK_BUCKET_SQL =
+            "SELECT last_log_id FROM score_reconcile_bucket WHERE bucket = ? FOR UPDATE";
+
+    // settled: 체크포인트로 넘길 로그 합계, since_checkpoint: 비교에 쓸 체크포인트 이후 전체 합계
+    private static final String SCAN_SQL = """
+            SELECT u.user_id, u.score, l.ledger_total,
+                   COALESCE(s.settled, 0) AS settled,
+                   COALESCE(s.since_checkpoint, 0) AS since_checkpoint,
+                   COALESCE(s.row_count, 0) AS row_count
+            FROM app_user u
+            LEFT JOIN score_ledger l ON l.user_id = u.user_id
+            LEFT JOIN (
+                SELECT user_id,
+                       sum(score_change) FILTER (WHERE log_id <= ?) AS settled,
+                       sum(score_change) AS since_checkpoint,
+                       count(*) AS row_count
+                FROM score_log
+                WHERE user_id >= ? AND user_id < ? AND log_id > ?
+                GROUP BY user_id
+            ) s ON s.user_id = u.user_id
+            WHERE u.user_id >= ? AND u.user_id < ?
+            """;
+
+    // 아카이브되어 파티션이 없는 월의 사용자별 합계
+    private static final String ARCHIVED_TOTALS_SQL = """
+            SELECT user_id, sum(total) AS total FROM score_log_archived_total
+            WHERE user_id >= ? AND user_id < ?
+            GROUP BY user_id
+            """;
+
+    private static final String UPSERT_LEDGER_SQL = """
+            INSERT INTO score_ledger (user_id, ledger_total) VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE SET ledger_total = EXCLUDED.ledger_total
+            """;
+
+    private static final String REPAIR_SQL = "UPDATE app_user SET score = score - ? WHERE user_id = ?";
+
+    private static final String ADVANCE_BUCKET_SQL = """
+            UPDATE score_reconcile_bucket
+            SET last_log_id = ?, users = ?, drifted = ?, checked_at = CURRENT_TIMESTAMP
+            WHERE bucket = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final CacheInvalidationBus invalidationBus;
+    private final boolean enabled;
+    private final int bucketSize;
+    private final int parallelism;
+    private final int settleMinutes;
+    private final int maxAttempts;
+    private final int sampleLimit;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastReport;
+
+    public ScoreReconciler(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           CacheInvalidationBus invalidationBus,
+                           @Value("${dbterm.reconcile.enabled:true}") boolean enabled,
+                           @Value("${dbterm.reconcile.bucket-size:10000}") int bucketSize,
+                           @Value("${dbterm.reconcile.parallelism:4}") int parallelism,
+                           @Value("${dbterm.reconcile.settle-minutes:10}") int settleMinutes,
+                           @Value("${dbterm.reconcile.max-attempts:3}") int maxAttempts,
+                           @Value("${dbterm.reconcile.sample-limit:50}") int sampleLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.bucketSize = bucketSize;
+        this.parallelism = parallelism;
+        this.settleMinutes = settleMinutes;
+        this.maxAttempts = maxAttempts;
+        this.sampleLimit = sampleLimit;
+    }
+
+    /** 정기 점검은 보고만 함 (보정은 관리자 API 로) */
+    @Scheduled(cron = "${dbterm.reconcile.cron:0 0 4 * * *}")
+    public void runScheduled() {
+        if (!enabled) return;
+        Map<String, Object> report = reconcile(false, false);
+        log.info("Score reconciliation: {}", report);
+    }
+
+    /**
+     * 전체 사용자 점검. full 이면 체크포인트를 무시하고 원장을 처음부터(세그먼트 포함) 다시 집계합니다.
+     * 이미 실행 중이면 IllegalStateException
+     */
+    public Map<String, Object> reconcile(boolean full, boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("점수 정합성 점검이 이미 실행 중입니다.");
+        }
+        long started = System.nanoTime();
+        try {
+            Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(max(user_id), 0) FROM app_user", Long.class);
+            int buckets = (int) (maxUserId / bucketSize) + 1;
+            long settledLogId = jdbcTemplate.queryForObject(SETTLED_LOG_ID_SQL, Long.class,
+                    Timestamp.valueOf(LocalDateTime.now().minusMinutes(settleMinutes)));
+
+            Run run = new Run(full, repair, settledLogId);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            Result result;
+            try {
+                result = pool.invoke(new BucketRangeTask(run, 0, buckets));
+            } finally {
+                pool.shutdown();
+            }
+
+            result.trim(sampleLimit);
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("mode", full ? "full" : "incremental");
+            report.put("repair", repair);
+            report.put("settledLogId", settledLogId);
+            report.put("buckets", buckets);
+            report.put("fullBuckets", result.fullBuckets);
+            report.put("users", result.users);
+            report.put("scannedLogRows", result.rows);
+            report.put("archivedMonths", jdbcTemplate.queryForObject(
+                    "SELECT count(DISTINCT month) FROM score_log_archived_total", Long.class));
+            report.put("driftedUsers", result.drifted);
+            report.put("absoluteDrift", result.absoluteDrift);
+            report.put("repairedUsers", result.repaired);
+            report.put("samples", result.samples);
+            report.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // 구간 하나를 스냅샷 트랜잭션으로 처리. 동시 수정으로 직렬화 오류가 나면 다시 시도
+    private Result reconcileBucket(Run run, int bucket) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return snapshotTransaction.execute(status -> scanBucket(run, bucket));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) throw e;
+                log.debug("Retrying reconcile bucket {} after {}", bucket, e.getMessage());
+            }
+        }
+    }
+
+    private Result scanBucket(Run run, int bucket) {
+        // 스냅샷을 잡기 전에 score_log 를 잠가서, 파티션 DETACH(+합계 기록)가 스냅샷 전에 커밋됐거나 이 트랜잭션이 끝날 때까지
+        // 기다리게 함 (파티션 목록은 스냅샷이 아니라 최신 카탈로그를 보므로, 둘 다 빠지는 틈을 막음)
+        jdbcTemplate.execute("LOCK TABLE score_log IN ACCESS SHARE MODE");
+        jdbcTemplate.update(CLAIM_BUCKET_SQL, bucket);
+        long checkpoint = jdbcTemplate.queryForObject(LOCK_BUCKET_SQL, Long.class, bucket);
+        boolean full = run.full || checkpoint < 0;
+        long from = full ? 0 : checkpoint;
+        long settledTo = Math.max(run.settledLogId, from);
+        long lo = (long) bucket * bucketSize;
+        long hi = lo + bucketSize;
+        Map<Long, Long> archived = full ? archivedTotals(lo, hi) : Map.of();
+
+        Result result = new Result();
+        if (full) result.fullBuckets++;
+        List<Object[]> ledgerRows = new ArrayList<>();
+        List<Object[]> repairs = new ArrayList<>();
+        jdbcTemplate.query(SCAN_SQL, rs -> {
+            long userId = rs.getLong("user_id");
+            long score = rs.getLong("score");
+            long ledger = rs.getLong("ledger_total");
+            boolean hasLedger = !rs.wasNull();
+            long settled = rs.getLong("settled");
+            long sinceCheckpoint = rs.getLong("since_checkpoint");
+
+            long base = full ? archived.getOrDefault(userId, 0L) : ledger;
+            long drift = score - (base + sinceCheckpoint);
+            if (full || !hasLedger || settled != 0) ledgerRows.add(new Object[]{userId, base + settled});
+
+            result.users++;
+            result.rows += rs.getLong("row_count");
+            if (drift != 0) {
+                result.drifted++;
+                result.absoluteDrift += Math.abs(drift);
+                result.addSample(userId, score, base + sinceCheckpoint, drift, sampleLimit);
+                if (run.repair) repairs.add(new Object[]{drift, userId});
+            }
+        }, settledTo, lo, hi, from, lo, hi);
+
+        if (!ledgerRows.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_LEDGER_SQL, ledgerRows);
+        if (!repairs.isEmpty()) {
+            jdbcTemplate.batchUpdate(REPAIR_SQL, repairs);
+            for (Object[] repair : repairs) invalidationBus.publish(EntityType.USER, (Long) repair[1]);
+            result.repaired = repairs.size();
+        }
+        jdbcTemplate.update(ADVANCE_BUCKET_SQL, settledTo, (int) result.users, (int) result.drifted, bucket);
+        return result;
+    }
+
+    // 구간 사용자들의 아카이브된 월 합계 (scanBucket 과 같은 스냅샷에서)
+    private Map<Long, Long> archivedTotals(long lo, long hi) {
+        Map<Long, Long> totals = new HashMap<>();
+        jdbcTemplate.query(ARCHIVED_TOTALS_SQL, rs -> {
+            totals.put(rs.getLong("user_id"), rs.getLong("total"));
+        }, lo, hi);
+        return totals;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("bucketSize", bucketSize);
+        stats.put("parallelism", parallelism);
+        stats.put("settleMinutes", settleMinutes);
+        stats.put("lastRun", lastReport);
+        return stats;
+    }
+
+    /** 한 번의 점검 실행에서 구간들이 공유하는 값 */
+    private class Run {
+        final boolean full;
+        final boolean repair;
+        final long settledLogId;
+
+        Run(boolean full, boolean repair, long settledLogId) {
+            this.full = full;
+            this.repair = repair;
+            this.settledLogId = settledLogId;
+        }
+    }
+
+    /** 구간 [from, to) 를 반씩 나눠 병렬 처리 */
+    private class BucketRangeTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final Run run;
+        private final int from;
+        private final int to;
+
+        BucketRangeTask(Run run, int from, int to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from == 1) return reconcileBucket(run, from);
+            int mid = (from + to) >>> 1;
+            BucketRangeTask left = new BucketRangeTask(run, from, mid);
+            left.fork();
+            Result right = new BucketRangeTask(run, mid, to).compute();
+            return left.join().merge(right, sampleLimit);
+        }
+    }
+
+    /** 구간별 집계 결과 (차이가 큰 사용자 sampleLimit 명만 남김) */
+    private static class Result {
+        long users;
+        long rows;
+        long drifted;
+        long absoluteDrift;
+        long repaired;
+        int fullBuckets;
+        List<Map<String, Object>> samples = new ArrayList<>();
+
+        void addSample(long userId, long score, long ledger, long drift, int limit) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("userId", userId);
+            sample.put("score", score);
+            sample.put("ledger", ledger);
+            sample.put("drift", drift);
+            samples.add(sample);
+            if (samples.size() >= limit * 2) trim(limit);
+        }
+
+        Result merge(Result other, int limit) {
+            users += other.users;
+            rows += other.rows;
+            drifted += other.drifted;
+            absoluteDrift += other.absoluteDrift;
+            repaired += other.repaired;
+            fullBuckets += other.fullBuckets;
+            samples.addAll(other.samples);
+            trim(limit);
+            return this;
+        }
+
+        void trim(int limit) {
+            if (samples.size() <= limit) return;
+            samples.sort(Comparator.comparingLong((Map<String, Object> s) -> Math.abs((Long) s.get("drift"))).reversed());
+            samples = new ArrayList<>(samples.subList(0, limit));
+        }
+    }
+}
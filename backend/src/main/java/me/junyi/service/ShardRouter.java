@@ -0,0 +1,262 @@
+package me.junyi.service;
+
+import jakarta.annotation.PreDestroy;
+import me.junyi.config.ShardRoutingDataSource;
+import me.junyi.config.ShardingConfig;
+import me.junyi.config.Tracer;
+import me.junyi.config.TracingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 사건 데이터 샤드 라우팅 (case_id 기준, 샤드 = case_id mod 샤드 수).
+ * case_info / case_participation / original_evidence / submitted_evidence 와 그 보관 테이블, case_event, case_projection 은
+ * 사건이 속한 샤드에만 있고, app_user 의 원본과 score_log 등 나머지는 전역 DB 에 있습니다 (샤드의 app_user 는 조인용 복사본).
+ *
+ * - inCaseTransaction(): 사건 하나에 대한 쓰기. 그 사건의 샤드에서 새 트랜잭션으로 실행합니다.
+ * - 사건 전이에 딸린 점수 변경은 ScoreOutbox 가 샤드 트랜잭션 안의 outbox 행으로 남기고 전역 DB 에 따로 반영합니다
+ *   (두 DB 를 묶는 2PC 는 없음). runGlobal(): 샤드가 묶여 있어도 전역 DB 의 새 트랜잭션에서 실행.
+ * - onCase(): 사건 하나에 대한 조회. scatter(): 사용자 기준 목록처럼 사건 id 를 모르는 조회를 모든 샤드에 병렬로 실행해 합칩니다.
+ *
+ * 샤딩을 끄면(기본값) 모든 메서드가 전역 DB 하나로 기존과 똑같이 동작합니다
+ * (inCaseTransaction 은 @Transactional 과 같은 REQUIRED).
+ */
+@Component
+public class ShardRouter {
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final TransactionTemplate caseTransaction;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate globalTransaction;
+    private final ThreadPoolExecutor scatterExecutor;
+
+    private final LongAdder caseTransactions = new LongAdder();
+    private final LongAdder scatters = new LongAdder();
+    private final LongAdder globalWrites = new LongAdder();
+
+    public ShardRouter(TransactionTemplate transactionTemplate,
+                       @Value("${dbterm.sharding.enabled:false}") boolean enabled,
+                       @Value("${dbterm.sharding.urls:}") String urls,
+                       @Value("${dbterm.sharding.scatter-threads:16}") int scatterThreads) {
+        this.enabled = enabled;
+        this.shardCount = enabled ? ShardingConfig.shardUrls(urls).size() : 1;
+        if (enabled && shardCount == 0) {
+            throw new IllegalStateException("dbterm.sharding.urls 에 샤드 DB 주소가 없습니다.");
+        }
+
+        // 샤드 트랜잭션은 바깥(전역 DB) 트랜잭션이 있어도 새 커넥션으로 시작해야 함
+        this.caseTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.caseTransaction.setPropagationBehavior(enabled
+                ? TransactionDefinition.PROPAGATION_REQUIRES_NEW : TransactionDefinition.PROPAGATION_REQUIRED);
+        this.readTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.globalTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.globalTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (enabled) {
+            // 큐 없이 넘치면 호출 스레드가 직접 실행 (대시보드 등 중첩 호출에서도 막히지 않음)
+            AtomicInteger seq = new AtomicInteger();
+            this.scatterExecutor = new ThreadPoolExecutor(shardCount, Math.max(shardCount, scatterThreads),
+                    60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r, "shard-scatter-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            this.scatterExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.scatterExecutor = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) scatterExecutor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(long caseId) {
+        return (int) Math.floorMod(caseId, (long) shardCount);
+    }
+
+    /** 사건 하나에 대한 쓰기 트랜잭션 (샤딩 시 그 사건의 샤드에서 새 트랜잭션) */
+    public <T> T inCaseTransaction(Long caseId, Supplier<T> work) {
+        caseTransactions.increment();
+        if (!enabled) return caseTransaction.execute(status -> work.get());
+        return inShardTransaction(shardOf(caseId), work);
+    }
+
+    /** 샤드 하나의 새 쓰기 트랜잭션 (배치 작업용, 샤딩을 끄면 전역 DB 의 REQUIRED 트랜잭션) */
+    public <T> T inShardTransaction(int shard, Supplier<T> work) {
+        if (!enabled) return caseTransaction.execute(status -> work.get());
+        return onShard(shard, () -> caseTransaction.execute(status -> work.get()));
+    }
+
+    /**
+     * caseIds 를 샤드별로 나눠(요청 순서 유지) 샤드마다 트랜잭션 하나로 work 를 실행하고 결과를 원래 순서로 합칩니다.
+     * work 는 받은 위치(caseIds 의 인덱스) 목록과 같은 순서·같은 길이의 결과를 돌려줘야 합니다.
+     * 샤드 사이에는 원자성이 없어서, 뒤 샤드가 실패해도 앞 샤드의 커밋은 남습니다. 샤딩을 끄면 전체가 한 트랜잭션입니다.
+     */
+    public <R> List<R> inShardGroups(List<Long> caseIds, Function<List<Integer>, List<R>> work) {
+        if (!enabled) {
+            caseTransactions.increment();
+            List<Integer> all = new ArrayList<>(caseIds.size());
+            for (int i = 0; i < caseIds.size(); i++) all.add(i);
+            return caseTransaction.execute(status -> work.apply(all));
+        }
+
+        Map<Integer, List<Integer>> groups = new TreeMap<>();
+        for (int i = 0; i < caseIds.size(); i++) {
+            Long caseId = caseIds.get(i);
+            groups.computeIfAbsent(caseId != null ? shardOf(caseId) : 0, s -> new ArrayList<>()).add(i);
+        }
+
+        Object[] results = new Object[caseIds.size()];
+        groups.forEach((shard, positions) -> {
+            caseTransactions.increment();
+            List<R> part = onShard(shard, () -> caseTransaction.execute(status -> work.apply(positions)));
+            for (int i = 0; i < positions.size(); i++) results[positions.get(i)] = part.get(i);
+        });
+        @SuppressWarnings("unchecked")
+        List<R> merged = (List<R>) Arrays.asList(results);
+        return merged;
+    }
+
+    /** 샤드가 묶여 있어도 전역 DB 의 새 트랜잭션에서 실행 (샤드 트랜잭션의 afterCommit 등에서 사용) */
+    public void runGlobal(Runnable work) {
+        Integer previous = ShardRoutingDataSource.bind(null);
+        try {
+            globalTransaction.executeWithoutResult(status -> work.run());
+            globalWrites.increment();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    /** 사건 하나에 대한 조회 (트랜잭션 없이, 샤딩 시 그 사건의 샤드에서) */
+    public <T> T onCase(Long caseId, Supplier<T> query) {
+        if (!enabled) return query.get();
+        return read(shardOf(caseId), query);
+    }
+
+    /** 모든 샤드에서 같은 조회를 병렬로 실행해 샤드 순서대로 이어 붙임 (샤딩을 끄면 그대로 한 번 실행) */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (!enabled) return query.get();
+        scatters.increment();
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(
+                    TracingDataSource.inheritDeadline(Tracer.propagate("shard-" + shard, () -> read(shard, query))),
+                    scatterExecutor));
+        }
+
+        List<T> merged = new ArrayList<>();
+        for (CompletableFuture<List<T>> future : futures) {
+            try {
+                merged.addAll(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    /** scatter 후 order 로 다시 정렬 (샤드마다 ORDER BY 한 목록을 합칠 때) */
+    public <T> List<T> scatter(Supplier<List<T>> query, Comparator<? super T> order) {
+        if (!enabled) return query.get();
+        List<T> merged = scatter(query);
+        merged.sort(order);
+        return merged;
+    }
+
+    /** 샤드마다 차례로 work 실행 (배치 작업용, 샤드 순서대로 결과 반환). 샤딩을 끄면 한 번 실행 */
+    public <T> List<T> eachShard(Supplier<T> work) {
+        if (!enabled) return Collections.singletonList(work.get());
+        List<T> results = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            results.add(onShard(i, work));
+        }
+        return results;
+    }
+
+    /** 현재 스레드에 묶인 샤드를 다른 스레드에서도 쓰도록 감쌈 (배치 작업이 직접 만드는 작업 스레드용) */
+    public static Runnable inheritShard(Runnable task) {
+        Integer shard = ShardRoutingDataSource.currentShard();
+        if (shard == null) return task;
+        return () -> {
+            Integer previous = ShardRoutingDataSource.bind(shard);
+            try {
+                task.run();
+            } finally {
+                ShardRoutingDataSource.restore(previous);
+            }
+        };
+    }
+
+    // 진행 중인 트랜잭션이 있으면 그 커넥션(다른 DB)을 쓰게 되므로, 같은 샤드가 아니면 새 읽기 트랜잭션으로 분리
+    private <T> T read(int shard, Supplier<T> query) {
+        Integer current = ShardRoutingDataSource.currentShard();
+        if (current != null && current == shard) return query.get();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return onShard(shard, () -> readTransaction.execute(status -> query.get()));
+        }
+        return onShard(shard, query);
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardRoutingDataSource.bind(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardRoutingDataSource.restore(previous);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("shards", shardCount);
+        stats.put("caseTransactions", caseTransactions.sum());
+        stats.put("scatters", scatters.sum());
+        stats.put("globalWrites", globalWrites.sum());
+        if (scatterExecutor != null) {
+            stats.put("scatterThreads", scatterExecutor.getPoolSize());
+            stats.put("scatterActive", scatterExecutor.getActiveCount());
+        }
+        return stats;
+    }
+}
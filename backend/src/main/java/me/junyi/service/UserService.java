@@ -1,57 +1,60 @@
 package me.junyi.service;
 
 import me.junyi.domain.AppUser;
+import me.junyi.domain.CaseEventType;
 import me.junyi.domain.CaseParticipation;
 import me.junyi.repository.AppUserRepository;
 import me.junyi.repository.CaseParticipationRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
-import me.junyi.domain.ScoreLog;
-import me.junyi.repository.ScoreLogRepository;
+import me.junyi.service.InvalidatableCache.EntityType;
 
 @Service
 public class UserService {
 
     private final AppUserRepository appUserRepository;
     private final CaseParticipationRepository participationRepository;
-    private final ScoreLogRepository scoreLogRepository;
+    private final ScoreOutbox scoreOutbox;
+    private final CacheInvalidationBus invalidationBus;
+    private final CaseEventStore caseEventStore;
+    private final ShardRouter shardRouter;
 
-    public UserService(AppUserRepository appUserRepository, CaseParticipationRepository participationRepository, ScoreLogRepository scoreLogRepository) {
+    public UserService(AppUserRepository appUserRepository, CaseParticipationRepository participationRepository, ScoreOutbox scoreOutbox,
+                       CacheInvalidationBus invalidationBus, CaseEventStore caseEventStore, ShardRouter shardRouter) {
         this.appUserRepository = appUserRepository;
         this.participationRepository = participationRepository;
-        this.scoreLogRepository = scoreLogRepository;
+        this.scoreOutbox = scoreOutbox;
+        this.invalidationBus = invalidationBus;
+        this.caseEventStore = caseEventStore;
+        this.shardRouter = shardRouter;
     }
 
     public Optional<AppUser> findByNickname(String nickname) {
         return appUserRepository.findByNickname(nickname);
     }
 
-    @Transactional
     public AppUser startCase(Long clientId, Long caseId) {
-        // 1. CASE_PARTICIPATION 레코드 생성 (의뢰인 등록)
-        CaseParticipation participation = CaseParticipation.builder()
-                .caseId(caseId)
-                .clientId(clientId)
-                .build();
-        participationRepository.save(participation);
-
-        // 2. 의뢰인 점수 +1 업데이트
-        AppUser client = appUserRepository.findById(clientId)
+        // 사건 쪽은 사건 샤드, 점수 쪽은 전역 DB (샤딩을 끄면 한 트랜잭션)
+        shardRouter.inCaseTransaction(caseId, () -> {
+            // 같은 사건의 전이는 사건 행 잠금으로 차례대로 (이벤트 순서 = 커밋 순서)
+            caseEventStore.lockCase(caseId);
+
+            // 1. CASE_PARTICIPATION 레코드 생성 (의뢰인 등록)
+            CaseParticipation participation = CaseParticipation.builder()
+                    .caseId(caseId)
+                    .clientId(clientId)
+                    .build();
+            CaseParticipation saved = participationRepository.save(participation);
+            caseEventStore.append(caseId, CaseEventType.CLIENT_STARTED, clientId, saved.getPartId(), null);
+            invalidationBus.publish(EntityType.CASE, caseId);
+
+            // 2. 의뢰인 점수 +1 과 SCORE_LOG 기록 (샤딩 시 사건 샤드의 outbox 를 거쳐 커밋 뒤 반영)
+            scoreOutbox.add(clientId, caseId, 1, "사건 의뢰 시작 (초기 점수)");
+            return null;
+        });
+
+        // 3. 반영된 점수 (샤딩 시 전역 반영이 늦어지면 이전 점수일 수 있음)
+        return appUserRepository.findById(clientId)
                 .orElseThrow(() -> new IllegalArgumentException("의뢰인을 찾을 수 없습니다."));
-
-        client.setScore(client.getScore() + 1);
-        AppUser updatedClient = appUserRepository.save(client);
-
-        // 3. SCORE_LOG 기록 (의뢰인 초기 점수 +1)
-        ScoreLog log = ScoreLog.builder()
-                .userId(clientId)
-                .caseId(caseId)
-                .scoreChange(1)
-                .reason("사건 의뢰 시작 (초기 점수)")
-                .build();
-        scoreLogRepository.save(log);
-
-        return updatedClient;
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package me.junyi.service;
+
+import me.junyi.config.SlowQueryLog;
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.Role;
+import me.junyi.dto.CaseDetectiveDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 사건 샤딩 통합 테스트 (ShardRouter + ShardingConfig + ScoreOutbox + 008_case_shards.sql, 009_score_outbox.sql).
+ * 샤드마다 사건을 하나씩 만들고 의뢰 → 범인 참여 → 조작 → 경찰 접수 → 탐정 배정까지 진행한 뒤 확인합니다.
+ *
+ * - 사건 ID ≡ 샤드 번호 (mod 샤드 수), 사건 행/이벤트/프로젝션은 자기 샤드에만 있고 전역 DB 에는 없음
+ * - 점수는 전역 DB 에만 쌓이고 score 와 score_log 합계가 같으며 샤드의 outbox 에 남은 행이 없음
+ * - 전역 반영이 끝나지 않은 outbox 행은 재시도(drainAll)가 반영하고, 이미 반영한 행은 다시 더하지 않음
+ * - 여러 샤드에 걸친 조회(scatter)가 모든 샤드의 사건을 모음
+ * - 느린 문장 EXPLAIN 이 문장을 실행한 샤드에서 실행됨 (SlowQueryLog, 기준 0ms 로 모든 문장을 기록)
+ *
+ * 전역 DB(DBTERM_TEST_DB_URL, 007 과 009 적용)와 008, 009 를 적용한 샤드 DB 들(DBTERM_TEST_SHARD_URLS, 쉼표 구분)이
+ * 있을 때만 실행합니다. 로컬 PostgreSQL 두 인스턴스로 준비부터 실행까지는 database/scripts/shard-check.sh 참고.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "dbterm.sharding.enabled=true",
+        "dbterm.sharding.urls=${DBTERM_TEST_SHARD_URLS}",
+        "dbterm.slow-query.threshold-ms=0"})
+@ActiveProfiles("local-db")
+@EnabledIfEnvironmentVariable(named = "DBTERM_TEST_DB_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "DBTERM_TEST_SHARD_URLS", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CaseShardingTest {
+
+    private static final String FAKE_EVIDENCE = WorkflowFixture.FAKE_EVIDENCE;
+    private static final long PLAN_WAIT_MS = 10_000;
+
+    private static final List<String> CASE_TABLES = List.of(
+            "case_info", "case_participation", "original_evidence", "submitted_evidence",
+            "case_event", CaseProjector.TABLE);
+
+    @Autowired
+    private CaseService caseService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CaseProjectionReader projectionReader;
+    @Autowired
+    private ShardRouter shardRouter;
+    @Autowired
+    private ScoreOutbox scoreOutbox;
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+    @Autowired
+    private ActivityFeed activityFeed;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private WorkflowFixture fixture;
+    private List<Long> caseIds = List.of();
+    private long client;
+    private long culprit;
+    private long police;
+    private long detective;
+
+    @BeforeAll
+    void createUsersAndCases() {
+        assertThat(shardRouter.isEnabled()).isTrue();
+        assertThat(shardRouter.shardCount()).as("shard count").isGreaterThanOrEqualTo(2);
+
+        fixture = new WorkflowFixture("sharding", jdbcTemplate, transactionTemplate, shardRouter, activityFeed);
+        client = fixture.insertUser("c", Role.CLIENT);
+        culprit = fixture.insertUser("k", Role.CULPRIT);
+        police = fixture.insertUser("p", Role.POLICE);
+        detective = fixture.insertUser("d", Role.DETECTIVE);
+        // 샤드마다 등록 상태의 사건 하나 (샤드의 시퀀스가 ID 를 정함)
+        caseIds = shardRouter.eachShard(() -> fixture.insertCase(CaseStatus.REGISTERED, culprit, null, null));
+    }
+
+    @AfterAll
+    void cleanup() {
+        fixture.cleanup();
+    }
+
+    @Test
+    void crossShardWorkflow() throws InterruptedException {
+        int shards = shardRouter.shardCount();
+        for (int i = 0; i < shards; i++) {
+            long caseId = caseIds.get(i);
+            assertThat(shardRouter.shardOf(caseId)).as("case %d shard", caseId).isEqualTo(i);
+
+            userService.startCase(client, caseId);
+            caseService.handleJoinCulprit(caseId, culprit);
+            caseService.handleCriminalAction(caseId, culprit, FAKE_EVIDENCE);
+            caseService.handlePoliceAccept(caseId, police);
+            caseService.handlePoliceAssignment(caseId, police, detective);
+        }
+
+        // 사건 쪽 행은 자기 샤드에만
+        Long[] cases = caseIds.toArray(Long[]::new);
+        for (String table : CASE_TABLES) {
+            List<List<Long>> found = shardRouter.eachShard(() -> caseIdsIn(table, cases));
+            for (int i = 0; i < shards; i++) {
+                assertThat(found.get(i)).as("%s on shard %d", table, i).containsOnly(caseIds.get(i));
+            }
+            assertThat(caseIdsIn(table, cases)).as("%s on global", table).isEmpty();
+        }
+        List<Short> statuses = shardRouter.scatter(() -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT status FROM case_info WHERE case_id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("bigint", cases));
+            return ps;
+        }, (rs, rowNum) -> rs.getShort("status")));
+        assertThat(statuses).hasSize(shards).containsOnly(CaseStatus.ASSIGNED.getCode());
+
+        // 점수는 전역 DB 에서만, 샤드의 outbox 는 커밋 직후 반영되어 비어 있음
+        assertThat(fixture.scoreMismatches()).as("score != sum(score_log)").isEmpty();
+        assertThat(pendingOutbox()).as("pending score outbox per shard").containsOnly(0);
+        Integer scoreLogs = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM score_log WHERE user_id = ?", Integer.class, client);
+        assertThat(scoreLogs).as("client score_log rows").isGreaterThanOrEqualTo(shards);
+
+        // 여러 샤드에 걸친 조회
+        assertThat(projectionReader.getAssignedCasesByDetectiveId(detective))
+                .extracting(CaseDetectiveDto::getCaseId)
+                .containsExactlyInAnyOrderElementsOf(caseIds);
+
+        // 사건 테이블 문장의 EXPLAIN 은 그 문장을 실행한 샤드에서
+        List<Map<String, Object>> plans = waitForCaseInfoPlans();
+        assertThat(plans).as("case_info plans").isNotEmpty();
+        for (Map<String, Object> plan : plans) {
+            assertThat(plan).as("plan %s", plan).containsKey("shard").doesNotContainKey("error");
+            assertThat((Integer) plan.get("shard")).isBetween(0, shards - 1);
+        }
+    }
+
+    @Test
+    void outboxRetryAppliesEachRowOnce() {
+        long caseId = caseIds.get(0);
+        int before = score(police);
+
+        // 샤드는 커밋됐지만 전역 반영 전에 멈춘 두 행. 첫 행은 전역에 반영됐으나 샤드에서 지우기 전에 멈춤
+        // (샤드 커밋 전에 전역 쪽을 먼저 만들어 주기적인 재시도가 그 사이에 끼어들지 않게 함)
+        List<Long> outboxIds = shardRouter.inShardTransaction(0, () -> {
+            List<Long> ids = jdbcTemplate.query("""
+                    INSERT INTO score_outbox (user_id, case_id, score_change, reason)
+                    VALUES (?, ?, 5, '재시도 점검'), (?, ?, 7, '재시도 점검') RETURNING outbox_id""",
+                    (rs, rowNum) -> rs.getLong(1), police, caseId, police, caseId);
+            shardRouter.runGlobal(() -> {
+                jdbcTemplate.update("INSERT INTO score_outbox_applied (shard, outbox_id) VALUES (0, ?)", ids.get(0));
+                jdbcTemplate.update("UPDATE app_user SET score = score + 5 WHERE user_id = ?", police);
+                jdbcTemplate.update("INSERT INTO score_log (user_id, case_id, score_change, reason)"
+                        + " VALUES (?, ?, 5, '재시도 점검')", police, caseId);
+            });
+            return ids;
+        });
+
+        try {
+            scoreOutbox.drainAll();
+
+            assertThat(score(police)).isEqualTo(before + 5 + 7);
+            assertThat(pendingOutbox()).containsOnly(0);
+            assertThat(fixture.scoreMismatches()).as("score != sum(score_log)").isEmpty();
+        } finally {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "DELETE FROM score_outbox_applied WHERE shard = 0 AND outbox_id = ANY (?)");
+                ps.setArray(1, con.createArrayOf("bigint", outboxIds.toArray(Long[]::new)));
+                return ps;
+            });
+        }
+    }
+
+    private int score(long userId) {
+        return jdbcTemplate.queryForObject("SELECT score FROM app_user WHERE user_id = ?", Integer.class, userId);
+    }
+
+    // 샤드마다 점검용 사용자의 outbox 에 남은 행 수
+    private List<Integer> pendingOutbox() {
+        Long[] users = fixture.userIds().toArray(Long[]::new);
+        return shardRouter.eachShard(() -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT count(*) FROM score_outbox WHERE user_id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("bigint", users));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1)).get(0));
+    }
+
+    // EXPLAIN 은 별도 스레드에서 비동기로 실행되므로 잠시 기다림
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> waitForCaseInfoPlans() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + PLAN_WAIT_MS;
+        List<Map<String, Object>> plans = List.of();
+        while (plans.isEmpty() && System.currentTimeMillis() < deadline) {
+            plans = slowQueryLog.summary("count", Integer.MAX_VALUE).stream()
+                    .filter(shape -> ((String) shape.get("sql")).contains("case_info"))
+                    .flatMap(shape -> ((List<Map<String, Object>>) shape.get("plans")).stream())
+                    .toList();
+            if (plans.isEmpty()) Thread.sleep(100);
+        }
+        return plans;
+    }
+
+    private List<Long> caseIdsIn(String table, Long[] cases) {
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT DISTINCT case_id FROM " + table + " WHERE case_id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("bigint", cases));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong("case_id"));
+    }
+
+}
@@ -0,0 +1,316 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.Role;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CaseService 사건 전이 동시성 테스트.
+ * 점검용 사용자와 사건을 만들어 놓고 스레드 N 개가 같은 사건(또는 서로 다른 사건)에 동시에 전이를 요청한 뒤 불변식을 확인합니다.
+ *
+ * - joinSameCase      : 한 사건에 범인 N 명이 동시에 참여 → 성공은 1 건, 기록된 범인이 성공한 스레드
+ * - joinSameCulprit   : 범인 한 명이 사건 N 개에 동시에 참여 → 모두 성공, 점수 갱신이 사라지지 않음
+ * - policeSameCase    : 한 사건에 경찰 접수/탐정 배정이 섞여서 동시에 들어옴 → 상태와 참여 정보가 일치
+ * - fabricateSameCase : 한 사건에 같은 범인의 증거 조작이 동시에 들어옴 → 제출 증거가 한 벌
+ * - disjointPipeline  : 스레드마다 자기 사건으로 참여 → 조작 → 접수 → 배정 (경합 없음) → 모두 성공, 교착 없음
+ * 매 테스트 뒤 점검용 사용자의 점수와 score_log 합계가 같은지 확인합니다 (어긋나면 사라진 갱신).
+ * 시나리오 × 스레드 수마다 시도/성공 수, 초당 전이 수, 교착/직렬화 실패/잠금 대기 실패 비율을 모아 끝에 표로 남깁니다.
+ *
+ * 실제 DB 에 행을 쓰므로 local-db 프로필(DBTERM_TEST_DB_URL 의 로컬/검증용 DB, 006 까지 적용)에서만 실행하고
+ * 끝나면 만든 행을 지웁니다. 예: DBTERM_TEST_DB_URL=jdbc:postgresql://localhost:5432/dbterm_test mvn test
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("local-db")
+@EnabledIfEnvironmentVariable(named = "DBTERM_TEST_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CaseWorkflowContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseWorkflowContentionTest.class);
+    private static final List<String> FAILURE_KINDS = List.of("deadlock", "serialization", "lockTimeout", "rejected", "error");
+
+    private static final int MAX_THREADS = 8;
+    private static final int ROUNDS = 5;
+    private static final String FAKE_EVIDENCE = WorkflowFixture.FAKE_EVIDENCE;
+
+    @Autowired
+    private CaseService caseService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ActivityFeed activityFeed;
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private WorkflowFixture fixture;
+    private final List<Cell> report = new ArrayList<>();
+    private Cell cell;
+    private ExecutorService pool;
+    private long client;
+    private long[] culprits;
+    private long[] police;
+    private long[] detectives;
+
+    @BeforeAll
+    void createUsers() {
+        pool = Executors.newFixedThreadPool(MAX_THREADS);
+        fixture = new WorkflowFixture("contention", jdbcTemplate, transactionTemplate, shardRouter, activityFeed);
+        client = insertUser("c0", Role.CLIENT);
+        culprits = new long[MAX_THREADS];
+        police = new long[MAX_THREADS];
+        detectives = new long[MAX_THREADS];
+        for (int i = 0; i < MAX_THREADS; i++) {
+            culprits[i] = insertUser("k" + i, Role.CULPRIT);
+            police[i] = insertUser("p" + i, Role.POLICE);
+            detectives[i] = insertUser("d" + i, Role.DETECTIVE);
+        }
+    }
+
+    // 파라미터 이름이 "threads=N" 인 표시 이름에서 스레드 수를 읽어 이번 칸을 시작
+    @BeforeEach
+    void startCell(TestInfo info) {
+        String name = info.getDisplayName();
+        cell = new Cell(info.getTestMethod().orElseThrow().getName(),
+                Integer.parseInt(name.substring(name.indexOf('=') + 1)));
+    }
+
+    @AfterEach
+    void scoresMatchScoreLog() {
+        List<Long> mismatched = fixture.scoreMismatches();
+        report.add(cell);
+        assertThat(mismatched).as("score != sum(score_log)").isEmpty();
+        assertThat(cell.failures).as("unexpected transition errors").doesNotContainKey("error");
+    }
+
+    @AfterAll
+    void cleanup() {
+        logReport();
+        pool.shutdownNow();
+        fixture.cleanup();
+    }
+
+    @ParameterizedTest(name = "threads={0}")
+    @ValueSource(ints = {2, MAX_THREADS})
+    void joinSameCase(int threads) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long caseId = createCase(CaseStatus.REGISTERED, null);
+            List<Callable<Boolean>> actions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long culprit = culprits[i];
+                actions.add(() -> attempt(() -> caseService.handleJoinCulprit(caseId, culprit)));
+            }
+            List<Boolean> results = race(actions);
+
+            assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+            Long criminal = jdbcTemplate.queryForObject(
+                    "SELECT criminal_id FROM case_participation WHERE case_id = ?", Long.class, caseId);
+            assertThat(criminal).isNotNull();
+            assertThat(results.get(indexOf(culprits, criminal))).as("criminal is the winner").isTrue();
+        }
+    }
+
+    @ParameterizedTest(name = "threads={0}")
+    @ValueSource(ints = {2, MAX_THREADS})
+    void joinSameCulprit(int threads) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Callable<Boolean>> actions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long caseId = createCase(CaseStatus.REGISTERED, null);
+                actions.add(() -> attempt(() -> caseService.handleJoinCulprit(caseId, culprits[0])));
+            }
+            assertThat(race(actions)).containsOnly(true);
+        }
+    }
+
+    @ParameterizedTest(name = "threads={0}")
+    @ValueSource(ints = {2, MAX_THREADS})
+    void policeSameCase(int threads) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long caseId = createCase(CaseStatus.FABRICATED, culprits[0]);
+            List<Callable<Boolean>> actions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long officer = police[i];
+                long detective = detectives[i];
+                actions.add(i % 2 == 0
+                        ? () -> attempt(() -> caseService.handlePoliceAccept(caseId, officer))
+                        : () -> attempt(() -> caseService.handlePoliceAssignment(caseId, officer, detective)));
+            }
+            race(actions);
+
+            Map<String, Object> row = jdbcTemplate.queryForMap("""
+                    SELECT c.status, p.detective_id FROM case_info c
+                    JOIN case_participation p ON p.case_id = c.case_id WHERE c.case_id = ?""", caseId);
+            boolean assigned = ((Number) row.get("status")).shortValue() == CaseStatus.ASSIGNED.getCode();
+            assertThat(row.get("detective_id") != null).as("detective set iff ASSIGNED").isEqualTo(assigned);
+        }
+    }
+
+    @ParameterizedTest(name = "threads={0}")
+    @ValueSource(ints = {2, MAX_THREADS})
+    void fabricateSameCase(int threads) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long caseId = createCase(CaseStatus.REGISTERED, culprits[0]);
+            List<Callable<Boolean>> actions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                actions.add(() -> attempt(() -> caseService.handleCriminalAction(caseId, culprits[0], FAKE_EVIDENCE)));
+            }
+            List<Boolean> results = race(actions);
+
+            assertThat(results).contains(true);
+            Integer submitted = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM submitted_evidence WHERE case_id = ?", Integer.class, caseId);
+            assertThat(submitted).isEqualTo(WorkflowFixture.TRUE_EVIDENCE + 1);
+        }
+    }
+
+    @ParameterizedTest(name = "threads={0}")
+    @ValueSource(ints = {2, MAX_THREADS})
+    void disjointPipeline(int threads) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Callable<Boolean>> actions = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                long caseId = createCase(CaseStatus.REGISTERED, null);
+                long culprit = culprits[i];
+                long officer = police[i];
+                long detective = detectives[i];
+                actions.add(() -> attempt(() -> caseService.handleJoinCulprit(caseId, culprit))
+                        && attempt(() -> caseService.handleCriminalAction(caseId, culprit, FAKE_EVIDENCE))
+                        && attempt(() -> caseService.handlePoliceAccept(caseId, officer))
+                        && attempt(() -> caseService.handlePoliceAssignment(caseId, officer, detective)));
+            }
+            assertThat(race(actions)).containsOnly(true);
+        }
+        assertThat(cell.failures).doesNotContainKeys("deadlock", "serialization", "lockTimeout");
+    }
+
+    // 모든 스레드가 준비된 뒤 한꺼번에 출발
+    private List<Boolean> race(List<Callable<Boolean>> actions) throws InterruptedException, ExecutionException {
+        CountDownLatch ready = new CountDownLatch(actions.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>(actions.size());
+        for (Callable<Boolean> action : actions) {
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                go.await();
+                return action.call();
+            }));
+        }
+        ready.await();
+        long started = System.nanoTime();
+        go.countDown();
+        List<Boolean> results = new ArrayList<>(futures.size());
+        for (Future<Boolean> future : futures) results.add(future.get());
+        cell.elapsedNanos += System.nanoTime() - started;
+        return results;
+    }
+
+    private boolean attempt(Runnable transition) {
+        cell.attempts.increment();
+        try {
+            transition.run();
+            cell.successes.increment();
+            return true;
+        } catch (RuntimeException e) {
+            cell.failures.computeIfAbsent(classify(e), k -> new LongAdder()).increment();
+            return false;
+        }
+    }
+
+    // 시나리오 × 스레드 수별 처리량과 실패 비율 (경합이 늘수록 어떻게 변하는지 비교용)
+    private void logReport() {
+        StringBuilder table = new StringBuilder(String.format("%n%-18s %7s %8s %8s %10s", "scenario", "threads",
+                "attempts", "success", "trans/s"));
+        FAILURE_KINDS.forEach(kind -> table.append(String.format(" %13s", kind)));
+        for (Cell c : report) {
+            long attempts = c.attempts.sum();
+            double seconds = c.elapsedNanos / 1_000_000_000.0;
+            table.append(String.format("%n%-18s %7d %8d %8d %10.1f", c.scenario, c.threads, attempts,
+                    c.successes.sum(), seconds == 0 ? 0.0 : c.successes.sum() / seconds));
+            for (String kind : FAILURE_KINDS) {
+                long count = c.failures.getOrDefault(kind, new LongAdder()).sum();
+                table.append(String.format(" %5d (%4.1f%%)", count, attempts == 0 ? 0.0 : count * 100.0 / attempts));
+            }
+        }
+        log.info("Case workflow contention report:{}", table);
+    }
+
+    // 예외 원인을 SQLSTATE 기준으로 분류 (40P01 교착, 40001 직렬화 실패, 55P03 잠금 대기 실패)
+    private static String classify(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                switch (sql.getSQLState()) {
+                    case "40P01": return "deadlock";
+                    case "40001": return "serialization";
+                    case "55P03": return "lockTimeout";
+                    default: break;
+                }
+            }
+        }
+        if (error instanceof PessimisticLockingFailureException) return "lockTimeout";
+        if (error instanceof IllegalStateException || error instanceof IllegalArgumentException) return "rejected";
+        return "error";
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) return i;
+        }
+        throw new IllegalStateException("점검용 사용자가 아닙니다: " + id);
+    }
+
+    private long insertUser(String suffix, Role role) {
+        return fixture.insertUser(suffix, role);
+    }
+
+    // 의뢰까지 된 사건. criminal 이 있으면 범인 참여까지, status 가 조작이면 조작 완료 상태로 만듦
+    private long createCase(CaseStatus status, Long criminal) {
+        return fixture.insertCase(status, culprits[0], client, criminal);
+    }
+
+    /** 시나리오 × 스레드 수 한 칸의 집계 (race 에 걸린 시간 기준) */
+    private static final class Cell {
+        final String scenario;
+        final int threads;
+        final LongAdder attempts = new LongAdder();
+        final LongAdder successes = new LongAdder();
+        final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        long elapsedNanos;
+
+        Cell(String scenario, int threads) {
+            this.scenario = scenario;
+            this.threads = threads;
+        }
+    }
+}
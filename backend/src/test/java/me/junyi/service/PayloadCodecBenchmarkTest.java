@@ -0,0 +1,49 @@
+package me.junyi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.junyi.config.BinaryCodecConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PayloadCodecBenchmark 의 synthetic 측정 (DB 없이 실행).
+ * 바이너리 형식이 JSON 과 같은 트리로 읽히고, 반복 문자열 참조 덕분에 JSON 보다 작은지 확인합니다.
+ */
+class PayloadCodecBenchmarkTest {
+
+    private final BinaryCodecConfig codecs = new BinaryCodecConfig(Jackson2ObjectMapperBuilder.json().build());
+    private final PayloadCodecBenchmark benchmark = new PayloadCodecBenchmark(codecs, null, null);
+
+    @Test
+    void binaryFormatsDecodeToTheSameTreeAsJson() throws Exception {
+        for (String payload : List.of(PayloadCodecBenchmark.RANKING, PayloadCodecBenchmark.PENDING,
+                PayloadCodecBenchmark.AVAILABLE)) {
+            Object value = PayloadCodecBenchmark.synthetic(payload, 50);
+            ObjectMapper json = codecs.jsonMapper();
+            assertThat(codecs.cborMapper().readTree(codecs.cborMapper().writeValueAsBytes(value)))
+                    .as(payload).isEqualTo(json.readTree(json.writeValueAsBytes(value)));
+            assertThat(codecs.smileMapper().readTree(codecs.smileMapper().writeValueAsBytes(value)))
+                    .as(payload).isEqualTo(json.readTree(json.writeValueAsBytes(value)));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void binaryFormatsAreSmallerThanJsonForRepeatedStrings() {
+        Map<String, Object> report = benchmark.run("synthetic", 200, 1);
+
+        List<Map<String, Object>> results = (List<Map<String, Object>>) report.get("results");
+        assertThat(results).hasSize(9);
+        for (Map<String, Object> row : results) {
+            assertThat((long) row.get("bytes")).isPositive();
+            if (!"json".equals(row.get("format"))) {
+                assertThat((double) row.get("sizeVsJson")).as(row.get("payload") + " " + row.get("format")).isLessThan(1.0);
+            }
+        }
+    }
+}
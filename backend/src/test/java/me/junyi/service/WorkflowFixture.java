@@ -0,0 +1,153 @@
+package me.junyi.service;
+
+import me.junyi.domain.CaseStatus;
+import me.junyi.domain.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 사건 워크플로우 DB 테스트용 점검 사용자/사건 준비와 정리 (CaseWorkflowContentionTest, CaseShardingTest).
+ *
+ * - 사용자는 전역 DB 에 만들고, 샤딩 중이면 모든 샤드에 같은 user_id 로 복사합니다 (008 참고).
+ * - 사건은 현재 스레드에 묶인 DB(샤딩 시 ShardRouter.eachShard 등으로 묶은 샤드)에 만듭니다.
+ * - 만든 행은 cleanup() 에서 모두 지웁니다 (점수 로그, 피드, 사건 테이블, outbox 포함).
+ */
+class WorkflowFixture {
+
+    static final int TRUE_EVIDENCE = 2;
+    static final String FAKE_EVIDENCE = "조작 후보 증거 1";
+
+    // 점수와 로그 합계가 어긋난 사용자 = 사라진(또는 로그 없이 반영된) 점수 갱신
+    private static final String SCORE_MISMATCH_SQL = """
+            SELECT u.user_id
+            FROM app_user u
+            LEFT JOIN (SELECT user_id, sum(score_change) AS total FROM score_log
+                       WHERE user_id = ANY (?) GROUP BY user_id) s ON s.user_id = u.user_id
+            WHERE u.user_id = ANY (?) AND u.score <> COALESCE(s.total, 0)
+            """;
+
+    private static final List<String> USER_CLEANUP_SQL = List.of(
+            "DELETE FROM score_log WHERE user_id = ANY (?)",
+            "DELETE FROM score_ledger WHERE user_id = ANY (?)",
+            "DELETE FROM activity_feed WHERE user_id = ANY (?)");
+
+    private static final List<String> CASE_CLEANUP_SQL = List.of(
+            "DELETE FROM case_event WHERE case_id = ANY (?)",
+            "DELETE FROM " + CaseProjector.TABLE + " WHERE case_id = ANY (?)",
+            "DELETE FROM submitted_evidence WHERE case_id = ANY (?)",
+            "DELETE FROM original_evidence WHERE case_id = ANY (?)",
+            "DELETE FROM case_participation WHERE case_id = ANY (?)",
+            "DELETE FROM case_info WHERE case_id = ANY (?)");
+
+    private static final String USER_DELETE_SQL = "DELETE FROM app_user WHERE user_id = ANY (?)";
+    private static final String OUTBOX_CLEANUP_SQL = "DELETE FROM score_outbox WHERE user_id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ActivityFeed activityFeed;
+    private final String prefix;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> caseIds = new ArrayList<>();
+
+    WorkflowFixture(String name, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                    ShardRouter shardRouter, ActivityFeed activityFeed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.activityFeed = activityFeed;
+        this.prefix = name + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /** 점수 0 인 점검용 사용자 */
+    long insertUser(String suffix, Role role) {
+        String nickname = prefix + "-" + suffix;
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO app_user (nickname, role, score) VALUES (?, ?, 0) RETURNING user_id",
+                Long.class, nickname, role.getCode());
+        userIds.add(userId);
+        if (shardRouter.isEnabled()) {
+            shardRouter.eachShard(() -> jdbcTemplate.update(
+                    "INSERT INTO app_user (user_id, nickname, role, score) VALUES (?, ?, ?, 0)",
+                    userId, nickname, role.getCode()));
+        }
+        return userId;
+    }
+
+    /**
+     * 진짜 증거 TRUE_EVIDENCE 개와 조작 후보 2 개가 있는 사건.
+     * client 가 있으면 의뢰까지(참여 행 생성), criminal 이 있으면 범인 참여까지 된 상태로 만듦.
+     */
+    long insertCase(CaseStatus status, long trueCriminal, Long client, Long criminal) {
+        Long caseId = transactionTemplate.execute(tx -> {
+            Long id = jdbcTemplate.queryForObject("""
+                    INSERT INTO case_info (title, content, difficulty, status, true_criminal_id)
+                    VALUES (?, ?, 1, ?, ?) RETURNING case_id""",
+                    Long.class, prefix, "워크플로우 테스트용 사건", status.getCode(), trueCriminal);
+            List<Object[]> evidence = new ArrayList<>();
+            for (int i = 1; i <= TRUE_EVIDENCE; i++) evidence.add(new Object[]{id, "진짜 증거 " + i, true, false});
+            evidence.add(new Object[]{id, FAKE_EVIDENCE, false, true});
+            evidence.add(new Object[]{id, "조작 후보 증거 2", false, true});
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO original_evidence (case_id, description, is_true, is_fake_candidate)
+                    VALUES (?, ?, ?, ?)""", evidence);
+            if (client != null) {
+                jdbcTemplate.update("INSERT INTO case_participation (case_id, client_id, criminal_id) VALUES (?, ?, ?)",
+                        id, client, criminal);
+            }
+            return id;
+        });
+        caseIds.add(caseId);
+        return caseId;
+    }
+
+    List<Long> userIds() {
+        return userIds;
+    }
+
+    /** 전역 DB 에서 score 와 score_log 합계가 다른 점검용 사용자 */
+    List<Long> scoreMismatches() {
+        Long[] ids = userIds.toArray(Long[]::new);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SCORE_MISMATCH_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong("user_id"));
+    }
+
+    void cleanup() {
+        // 대기 중인 피드 항목이 지운 뒤에 저장되지 않도록 먼저 내보냄
+        activityFeed.flush();
+        Long[] users = userIds.toArray(Long[]::new);
+        Long[] cases = caseIds.toArray(Long[]::new);
+        if (shardRouter.isEnabled()) {
+            shardRouter.eachShard(() -> transactionTemplate.execute(tx -> {
+                updateAll(CASE_CLEANUP_SQL, cases);
+                updateAll(List.of(OUTBOX_CLEANUP_SQL, USER_DELETE_SQL), users);
+                return null;
+            }));
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            updateAll(USER_CLEANUP_SQL, users);
+            if (!shardRouter.isEnabled()) updateAll(CASE_CLEANUP_SQL, cases);
+            updateAll(List.of(USER_DELETE_SQL), users);
+        });
+    }
+
+    private void updateAll(List<String> statements, Long[] ids) {
+        for (String sql : statements) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setArray(1, con.createArrayOf("bigint", ids));
+                return ps;
+            });
+        }
+    }
+}
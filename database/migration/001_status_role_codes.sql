@@ -0,0 +1,50 @@
+-- 사건 상태(case_info.status)와 사용자 역할(app_user.role)을 한글 varchar에서 smallint 코드로 변환합니다.
+-- 코드 값은 me.junyi.domain.CaseStatus / me.junyi.domain.Role 의 code 와 일치해야 합니다.
+--
+--   CaseStatus: 0=등록, 1=조작, 2=접수중, 3=배정, 4=추리 완료, 5=결과 확인
+--   Role      : 0=의뢰인, 1=범인, 2=경찰, 3=탐정
+
+BEGIN;
+
+-- 1. case_info.status
+ALTER TABLE public.case_info DROP CONSTRAINT IF EXISTS case_info_status_check;
+ALTER TABLE public.case_info ALTER COLUMN status DROP DEFAULT;
+
+ALTER TABLE public.case_info
+    ALTER COLUMN status TYPE smallint USING (
+        CASE status
+            WHEN '등록' THEN 0
+            WHEN '조작' THEN 1
+            WHEN '접수중' THEN 2
+            WHEN '접수 중' THEN 2
+            WHEN '배정' THEN 3
+            WHEN '추리 완료' THEN 4
+            WHEN '결과 확인' THEN 5
+        END
+    );
+
+ALTER TABLE public.case_info ALTER COLUMN status SET DEFAULT 0;
+ALTER TABLE public.case_info
+    ADD CONSTRAINT case_info_status_check CHECK (status BETWEEN 0 AND 5);
+
+-- 2. app_user.role
+ALTER TABLE public.app_user DROP CONSTRAINT IF EXISTS app_user_role_check;
+
+ALTER TABLE public.app_user
+    ALTER COLUMN role TYPE smallint USING (
+        CASE role
+            WHEN '의뢰인' THEN 0
+            WHEN '범인' THEN 1
+            WHEN '경찰' THEN 2
+            WHEN '탐정' THEN 3
+        END
+    );
+
+ALTER TABLE public.app_user
+    ADD CONSTRAINT app_user_role_check CHECK (role BETWEEN 0 AND 3);
+
+-- 3. 목록 조회용 인덱스 (findAllByStatus / findAllByStatusIn, 랭킹의 role 필터)
+CREATE INDEX IF NOT EXISTS case_info_status_idx ON public.case_info (status);
+CREATE INDEX IF NOT EXISTS app_user_role_idx ON public.app_user (role);
+
+COMMIT;
@@ -0,0 +1,61 @@
+-- score_log 를 log_time 기준 월 단위 RANGE 파티션 테이블로 전환합니다.
+-- 파티션 이름은 score_log_pYYYYMM 형식이며, 앞으로의 파티션 생성과 오래된 파티션의 아카이브/삭제는
+-- me.junyi.service.ScoreLogArchiver 가 담당합니다. (이름 규칙을 바꾸면 해당 클래스도 함께 수정)
+--
+-- PostgreSQL 15 는 파티션 테이블에 IDENTITY 컬럼을 지원하지 않으므로 log_id 는 별도 시퀀스를 사용합니다.
+
+BEGIN;
+
+-- 1. 기존 테이블 보관
+ALTER TABLE public.score_log RENAME TO score_log_legacy;
+ALTER TABLE public.score_log_legacy RENAME CONSTRAINT score_log_pkey TO score_log_legacy_pkey;
+ALTER TABLE public.score_log_legacy ALTER COLUMN log_id DROP IDENTITY IF EXISTS;
+
+-- 2. 파티션 부모 테이블 (파티션 키가 PK 에 포함되어야 함)
+CREATE SEQUENCE public.score_log_log_id_seq AS bigint;
+
+CREATE TABLE public.score_log (
+    log_id bigint NOT NULL DEFAULT nextval('public.score_log_log_id_seq'),
+    user_id integer NOT NULL REFERENCES public.app_user(user_id),
+    case_id integer NOT NULL REFERENCES public.case_info(case_id),
+    score_change integer NOT NULL,
+    reason character varying(50) NOT NULL,
+    log_time timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT score_log_pkey PRIMARY KEY (log_id, log_time)
+) PARTITION BY RANGE (log_time);
+
+ALTER SEQUENCE public.score_log_log_id_seq OWNED BY public.score_log.log_id;
+
+-- 사용자별 점수 내역 조회용
+CREATE INDEX score_log_user_time_idx ON public.score_log (user_id, log_time);
+
+-- 3. 기존 데이터 범위 ~ 3개월 뒤까지 월 파티션 생성
+DO $$
+DECLARE
+    month_start date;
+    last_month date := date_trunc('month', CURRENT_DATE + interval '3 months');
+BEGIN
+    SELECT COALESCE(date_trunc('month', min(log_time)), date_trunc('month', CURRENT_DATE))
+      INTO month_start
+      FROM public.score_log_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS public.%I PARTITION OF public.score_log FOR VALUES FROM (%L) TO (%L)',
+            'score_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END $$;
+
+-- 4. 데이터 이관 및 시퀀스 맞추기
+INSERT INTO public.score_log (log_id, user_id, case_id, score_change, reason, log_time)
+SELECT log_id, user_id, case_id, score_change, reason, log_time
+  FROM public.score_log_legacy;
+
+SELECT setval('public.score_log_log_id_seq', COALESCE((SELECT max(log_id) FROM public.score_log), 0) + 1, false);
+
+DROP TABLE public.score_log_legacy;
+
+COMMIT;
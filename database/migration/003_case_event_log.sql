@@ -0,0 +1,78 @@
+-- 사건 워크플로우 이벤트 로그(case_event)와 대시보드 조회용 비정규화 프로젝션(case_projection).
+-- 이벤트 코드는 me.junyi.domain.CaseEventType 과 일치해야 합니다.
+--
+--   0=CLIENT_STARTED, 1=CULPRIT_JOINED, 2=FABRICATED, 3=POLICE_ACCEPTED, 4=DETECTIVE_ASSIGNED, 5=VERDICT
+--
+-- 적용 후 프로젝션은 재생 도구로 채웁니다. (POST /api/admin/projections/rebuild 또는
+-- dbterm.projection.rebuild-on-startup=true 로 한 번 기동)
+
+BEGIN;
+
+-- 1. 이벤트 로그 (추가 전용)
+CREATE TABLE public.case_event (
+    event_id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    case_id integer NOT NULL REFERENCES public.case_info(case_id),
+    event_type smallint NOT NULL CHECK (event_type BETWEEN 0 AND 5),
+    actor_id integer,
+    subject_id bigint,
+    flag boolean,
+    occurred_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX case_event_case_idx ON public.case_event (case_id, event_id);
+
+-- 2. 사건 단위 비정규화 프로젝션 (대시보드는 이 테이블 하나만 조회)
+CREATE TABLE public.case_projection (
+    case_id integer PRIMARY KEY,
+    part_id bigint,
+    title character varying(100) NOT NULL,
+    content text NOT NULL,
+    difficulty integer NOT NULL,
+    status smallint NOT NULL,
+    client_id integer,
+    client_nickname character varying(50),
+    criminal_id integer,
+    criminal_nickname character varying(50),
+    police_id integer,
+    police_nickname character varying(50),
+    detective_id integer,
+    detective_nickname character varying(50),
+    guess_nickname character varying(50),
+    actual_culprit_nickname character varying(50),
+    is_solved boolean,
+    last_event_id bigint NOT NULL
+);
+
+-- 역할별 조회 경로
+CREATE INDEX case_projection_client_idx ON public.case_projection (client_id);
+CREATE INDEX case_projection_criminal_idx ON public.case_projection (criminal_id);
+CREATE INDEX case_projection_detective_idx ON public.case_projection (detective_id, status);
+CREATE INDEX case_projection_status_idx ON public.case_projection (status);
+
+-- 3. 현재 상태로부터 이벤트 이력 역산 (사건별로 실제 진행 순서대로 적재)
+INSERT INTO public.case_event (case_id, event_type, actor_id, subject_id)
+SELECT case_id, 0, client_id, part_id FROM public.case_participation ORDER BY part_id;
+
+INSERT INTO public.case_event (case_id, event_type, actor_id)
+SELECT case_id, 1, criminal_id FROM public.case_participation
+WHERE criminal_id IS NOT NULL ORDER BY part_id;
+
+INSERT INTO public.case_event (case_id, event_type, actor_id)
+SELECT p.case_id, 2, p.criminal_id
+FROM public.case_participation p JOIN public.case_info c ON c.case_id = p.case_id
+WHERE c.status >= 1 ORDER BY p.part_id;
+
+INSERT INTO public.case_event (case_id, event_type, actor_id)
+SELECT p.case_id, 3, p.police_id
+FROM public.case_participation p JOIN public.case_info c ON c.case_id = p.case_id
+WHERE p.police_id IS NOT NULL AND c.status = 2 ORDER BY p.part_id;
+
+INSERT INTO public.case_event (case_id, event_type, actor_id, subject_id)
+SELECT case_id, 4, police_id, detective_id FROM public.case_participation
+WHERE detective_id IS NOT NULL ORDER BY part_id;
+
+INSERT INTO public.case_event (case_id, event_type, actor_id, subject_id, flag)
+SELECT case_id, 5, detective_id, detective_guess_id, is_solved FROM public.case_participation
+WHERE is_solved IS NOT NULL ORDER BY part_id;
+
+COMMIT;
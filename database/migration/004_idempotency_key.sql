@@ -0,0 +1,21 @@
+-- 워크플로우 POST 요청의 Idempotency-Key 응답 저장소 (me.junyi.service.IdempotencyService).
+--
+-- 요청 하나당 한 행. 처리 중에는 status_code 가 NULL 이고(선점),
+-- 워크플로우 트랜잭션과 같은 트랜잭션에서 응답 코드/본문이 채워집니다.
+-- 보존 기간(dbterm.idempotency.ttl-hours)이 지난 행은 애플리케이션이 주기적으로 지웁니다.
+
+BEGIN;
+
+CREATE TABLE public.idempotency_key (
+    scope character varying(40) NOT NULL,
+    idem_key character varying(100) NOT NULL,
+    fingerprint bytea NOT NULL,
+    status_code smallint,
+    response_body text,
+    created_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope, idem_key)
+);
+
+CREATE INDEX idempotency_key_created_idx ON public.idempotency_key (created_at);
+
+COMMIT;
@@ -0,0 +1,89 @@
+-- 끝난 사건('결과 확인')을 보관 테이블로 옮기기 위한 스키마 (me.junyi.service.CaseArchiver).
+--
+-- 1) case_info.closed_at: '결과 확인'으로 바뀐 시각. 상태는 앱 밖에서도 바뀌므로 트리거로 기록합니다.
+-- 2) *_archive: 원본 테이블과 같은 컬럼 + archived_at. 기록 조회(탐정 완료 사건, 의뢰/참여 내역, 랭킹)는
+--    원본과 보관 테이블을 합쳐서 읽습니다.
+-- 3) score_log, case_event 는 보관 후에도 남아 있어야 하므로 case_info 로의 FK 를 제거합니다.
+--    (사건 id 는 case_info 또는 case_info_archive 중 한 곳에만 있음)
+
+BEGIN;
+
+-- 1. 종료 시각
+ALTER TABLE public.case_info ADD COLUMN closed_at timestamp without time zone;
+
+UPDATE public.case_info c
+   SET closed_at = COALESCE((SELECT max(e.occurred_at) FROM public.case_event e WHERE e.case_id = c.case_id),
+                            CURRENT_TIMESTAMP)
+ WHERE c.status = 5;
+
+CREATE FUNCTION public.case_info_set_closed_at() RETURNS trigger AS $$
+BEGIN
+    IF NEW.status = 5 AND OLD.status IS DISTINCT FROM 5 THEN
+        NEW.closed_at := CURRENT_TIMESTAMP;
+    ELSIF NEW.status <> 5 THEN
+        NEW.closed_at := NULL;
+    END IF;
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER case_info_closed_at
+    BEFORE UPDATE OF status ON public.case_info
+    FOR EACH ROW EXECUTE FUNCTION public.case_info_set_closed_at();
+
+-- 보관 대상 선택용 (끝난 사건만)
+CREATE INDEX case_info_closed_idx ON public.case_info (closed_at, case_id) WHERE status = 5;
+
+-- 2. 보관 테이블
+CREATE TABLE public.case_info_archive (
+    case_id integer PRIMARY KEY,
+    title character varying(100) NOT NULL,
+    content text NOT NULL,
+    difficulty integer NOT NULL,
+    status smallint NOT NULL,
+    true_criminal_id integer NOT NULL,
+    closed_at timestamp without time zone,
+    archived_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE TABLE public.case_participation_archive (
+    part_id integer PRIMARY KEY,
+    case_id integer NOT NULL,
+    client_id integer NOT NULL,
+    criminal_id integer,
+    police_id integer,
+    detective_id integer,
+    detective_guess_id integer,
+    is_solved boolean,
+    archived_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX case_participation_archive_client_idx ON public.case_participation_archive (client_id);
+CREATE INDEX case_participation_archive_criminal_idx ON public.case_participation_archive (criminal_id);
+CREATE INDEX case_participation_archive_detective_idx ON public.case_participation_archive (detective_id);
+
+CREATE TABLE public.submitted_evidence_archive (
+    submit_id integer PRIMARY KEY,
+    case_id integer NOT NULL,
+    evidence_description character varying(255) NOT NULL,
+    is_true_evidence boolean NOT NULL,
+    archived_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX submitted_evidence_archive_case_idx ON public.submitted_evidence_archive (case_id);
+
+CREATE TABLE public.original_evidence_archive (
+    evidence_id integer PRIMARY KEY,
+    case_id integer NOT NULL,
+    description character varying(255) NOT NULL,
+    is_true boolean NOT NULL,
+    is_fake_candidate boolean NOT NULL,
+    archived_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX original_evidence_archive_case_idx ON public.original_evidence_archive (case_id);
+
+-- 3. 보관 후에도 남는 기록의 FK 제거
+ALTER TABLE public.score_log DROP CONSTRAINT IF EXISTS score_log_case_id_fkey;
+ALTER TABLE public.case_event DROP CONSTRAINT IF EXISTS case_event_case_id_fkey;
+
+COMMIT;
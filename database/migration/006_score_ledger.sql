@@ -0,0 +1,38 @@
+-- app_user.score 와 score_log 원장의 정합성 점검용 체크포인트 (me.junyi.service.ScoreReconciler).
+--
+-- 1) score_ledger: 사용자별로 체크포인트까지 확정된 score_log 합계 (아카이브된 세그먼트 포함).
+--    점검은 이 값에 체크포인트 이후의 로그만 더해서 app_user.score 와 비교합니다.
+-- 2) score_reconcile_bucket: user_id 를 고정 폭(bucket-size)으로 나눈 구간별 체크포인트.
+--    last_log_id 까지의 로그가 score_ledger 에 반영되어 있다는 뜻이며 -1 이면 아직 전체 집계 전입니다.
+--    구간 단위로 커밋하므로 중간에 멈춰도 끝난 구간은 다시 읽지 않습니다.
+--    bucket-size 를 바꾸면 이 테이블을 비우고 전체 점검(full=true)을 다시 해야 합니다.
+-- 3) score_log_archived_total: 세그먼트로 아카이브하고 DROP 한 월 파티션의 사용자별 합계.
+--    ScoreLogArchiver 가 DETACH 와 같은 트랜잭션에서 기록하므로, 전체 점검은 세그먼트 파일이 없는 인스턴스에서도
+--    한 스냅샷 안에서 "파티션 또는 이 합계" 중 정확히 한쪽만 봅니다.
+--    이 테이블이 생기기 전에 아카이브한 월은 다음 파티션 점검에서 세그먼트 파일로부터 채웁니다.
+
+BEGIN;
+
+CREATE TABLE public.score_ledger (
+    user_id integer PRIMARY KEY,
+    ledger_total bigint NOT NULL
+);
+
+CREATE TABLE public.score_reconcile_bucket (
+    bucket integer PRIMARY KEY,
+    last_log_id bigint NOT NULL,
+    users integer NOT NULL DEFAULT 0,
+    drifted integer NOT NULL DEFAULT 0,
+    checked_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE TABLE public.score_log_archived_total (
+    month date NOT NULL,
+    user_id integer NOT NULL,
+    total bigint NOT NULL,
+    PRIMARY KEY (month, user_id)
+);
+
+CREATE INDEX score_log_archived_total_user_idx ON public.score_log_archived_total (user_id);
+
+COMMIT;
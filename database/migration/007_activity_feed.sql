@@ -0,0 +1,19 @@
+-- 사용자별 활동 피드 (me.junyi.service.ActivityFeed).
+--
+-- 사건 전이마다 관련자(의뢰인, 범인, 경찰, 탐정)에게 한 행씩 미리 나눠 쓰는(fan-out-on-write) 표입니다.
+-- 조회는 메모리의 사용자별 링 버퍼에서 하고, 이 테이블은 재시작/다른 인스턴스에서 링을 다시 채울 때만 읽습니다.
+-- 사용자당 최근 dbterm.feed.capacity 건만 의미가 있으므로 그보다 오래된 행은 정기 작업이 지웁니다.
+
+BEGIN;
+
+CREATE TABLE public.activity_feed (
+    user_id integer NOT NULL,
+    event_id bigint NOT NULL,
+    case_id integer NOT NULL,
+    actor_id integer,
+    event_type smallint NOT NULL,
+    occurred_at timestamp without time zone NOT NULL,
+    PRIMARY KEY (user_id, event_id)
+);
+
+COMMIT;
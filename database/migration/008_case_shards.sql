@@ -0,0 +1,73 @@
+-- 사건 테이블 샤딩용 샤드 DB 준비 (me.junyi.service.ShardRouter, dbterm.sharding.*).
+--
+-- 샤드 = case_id mod 샤드 수. 사건 테이블(case_info, case_participation, original_evidence, submitted_evidence,
+-- 각 *_archive, case_event, case_projection)은 사건이 속한 샤드에만 두고, 나머지(app_user 원본, score_log,
+-- score_ledger, score_log_archived_total, idempotency_key, activity_feed 등)는 전역 DB(spring.datasource)에 둡니다.
+-- 샤드의 app_user 는 닉네임 조인과 FK 용 복사본이며 점수는 쓰지 않습니다.
+--
+-- 준비 순서 (007 까지 적용된 전역 DB 를 잠시 쓰기 중지한 상태에서, 예: 샤드 2개)
+--   createdb -T dbterm dbterm_shard0
+--   createdb -T dbterm dbterm_shard1
+--   psql -d dbterm_shard0 -v shard_index=0 -v shard_count=2 -f 008_case_shards.sql
+--   psql -d dbterm_shard1 -v shard_index=1 -v shard_count=2 -f 008_case_shards.sql
+-- 로컬에서 여러 인스턴스로 시험할 때는 샤드마다 다른 포트의 PostgreSQL 에 pg_dump/pg_restore 로 복제한 뒤 같은 스크립트를 실행합니다.
+-- 전역 DB 의 사건 테이블은 그대로 두며 샤딩 중에는 읽거나 쓰지 않습니다 (샤딩을 끄고 돌아갈 때는 샤드에서 다시 모아야 함).
+--
+-- 1) 다른 샤드에 속한 사건 행과 전역 전용 테이블의 행을 지웁니다.
+-- 2) 사건 쪽 ID(case_id, part_id, evidence_id, submit_id, event_id)는 샤드마다 증가폭 = 샤드 수, 시작값 ≡ 샤드 번호 (mod 샤드 수)
+--    로 바꿔서, 새 사건이 만든 샤드에 그대로 속하고 part_id / event_id 도 샤드 사이에 겹치지 않게 합니다.
+--    시작값은 시퀀스 현재 값과 남은 행(보관 테이블 포함)의 최댓값보다 크게 잡습니다.
+-- 사용자를 추가할 때는 전역 DB 와 모든 샤드에 같은 user_id 로 넣어야 합니다. 샤드 수를 바꾸려면 다시 나눠야 합니다.
+
+BEGIN;
+
+SELECT set_config('dbterm.shard_index', :'shard_index', true),
+       set_config('dbterm.shard_count', :'shard_count', true);
+
+DO $$
+DECLARE
+    idx integer := current_setting('dbterm.shard_index')::integer;
+    n integer := current_setting('dbterm.shard_count')::integer;
+    id record;
+    max_id bigint;
+BEGIN
+    IF n < 1 OR idx < 0 OR idx >= n THEN
+        RAISE EXCEPTION 'invalid shard % of %', idx, n;
+    END IF;
+
+    -- 1. 다른 샤드의 사건 (자식 테이블부터)
+    DELETE FROM public.submitted_evidence WHERE case_id % n <> idx;
+    DELETE FROM public.original_evidence WHERE case_id % n <> idx;
+    DELETE FROM public.case_participation WHERE case_id % n <> idx;
+    DELETE FROM public.case_event WHERE case_id % n <> idx;
+    DELETE FROM public.case_projection WHERE case_id % n <> idx;
+    DELETE FROM public.case_info WHERE case_id % n <> idx;
+    DELETE FROM public.submitted_evidence_archive WHERE case_id % n <> idx;
+    DELETE FROM public.original_evidence_archive WHERE case_id % n <> idx;
+    DELETE FROM public.case_participation_archive WHERE case_id % n <> idx;
+    DELETE FROM public.case_info_archive WHERE case_id % n <> idx;
+
+    -- 2. ID 를 샤드 번호의 나머지류로 (나머지가 샤드마다 다르므로 시작값은 샤드마다 달라도 겹치지 않음)
+    FOR id IN SELECT * FROM (VALUES
+            ('case_info', 'case_info_archive', 'case_id'),
+            ('case_participation', 'case_participation_archive', 'part_id'),
+            ('original_evidence', 'original_evidence_archive', 'evidence_id'),
+            ('submitted_evidence', 'submitted_evidence_archive', 'submit_id'),
+            ('case_event', NULL, 'event_id')) AS t(tbl, archive, col)
+    LOOP
+        max_id := nextval(pg_get_serial_sequence('public.' || id.tbl, id.col)) - 1;
+        EXECUTE format('SELECT greatest($1, COALESCE((SELECT max(%I) FROM public.%I), 0)%s)',
+                       id.col, id.tbl,
+                       CASE WHEN id.archive IS NULL THEN ''
+                            ELSE format(', COALESCE((SELECT max(%I) FROM public.%I), 0)', id.col, id.archive) END)
+            INTO max_id USING max_id;
+        EXECUTE format('ALTER TABLE public.%I ALTER COLUMN %I SET INCREMENT BY %s RESTART WITH %s',
+                       id.tbl, id.col, n, (max_id / n + 1) * n + idx);
+    END LOOP;
+END $$;
+
+-- 3. 전역 DB 에만 있어야 하는 테이블
+TRUNCATE public.score_log, public.score_ledger, public.score_reconcile_bucket, public.score_log_archived_total,
+         public.idempotency_key, public.activity_feed;
+
+COMMIT;
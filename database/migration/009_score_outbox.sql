@@ -0,0 +1,30 @@
+-- 샤딩 시 사건 전이의 점수 변경을 잃지 않기 위한 outbox (me.junyi.service.ScoreOutbox).
+--
+-- 1) score_outbox: 샤드 DB 에서 사건 전이와 같은 트랜잭션으로 기록하는 점수 변경. 전역 DB 에 반영하면 지웁니다.
+-- 2) score_outbox_applied: 전역 DB 에 이미 반영한 (샤드, outbox_id). 점수 반영과 같은 트랜잭션에서 넣으므로
+--    샤드에서 outbox 행을 지우기 전에 실패해 다시 반영하더라도 점수가 두 번 더해지지 않습니다.
+--    retention-days 가 지난 행은 ScoreOutbox 가 지웁니다.
+--
+-- 전역 DB 와 모든 샤드에 적용합니다 (008 이후. 샤딩을 쓰지 않는 DB 에 적용해도 무방하며 테이블은 비어 있음).
+
+BEGIN;
+
+CREATE TABLE public.score_outbox (
+    outbox_id bigserial PRIMARY KEY,
+    user_id integer NOT NULL REFERENCES public.app_user(user_id),
+    case_id integer NOT NULL,
+    score_change integer NOT NULL,
+    reason character varying(50) NOT NULL,
+    log_time timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE TABLE public.score_outbox_applied (
+    shard integer NOT NULL,
+    outbox_id bigint NOT NULL,
+    applied_at timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (shard, outbox_id)
+);
+
+CREATE INDEX score_outbox_applied_time_idx ON public.score_outbox_applied (applied_at);
+
+COMMIT;
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# 사건 샤딩 점검: 로컬 PostgreSQL 인스턴스 두 개에 전역 DB 와 샤드 2개를 새로 만들고
+# (dbterm.sql 복원 → 001~007 적용 → 샤드 복제 → 008_case_shards.sql → 세 DB 에 009_score_outbox.sql)
+# 샤드를 넘나드는 통합 테스트를 실행합니다.
+#
+#   전역 DB, 샤드 0 : PORT0 인스턴스
+#   샤드 1          : PORT1 인스턴스 (pg_dump/pg_restore 로 복제)
+#
+# 사용법 (저장소 루트에서, 두 인스턴스는 같은 계정/비밀번호):
+#   PORT0=5432 PORT1=5433 PGUSER=postgres PGPASSWORD=... database/scripts/shard-check.sh
+# 다시 실행하면 점검용 DB(DBNAME, 기본 dbterm_shardcheck)를 지우고 새로 만듭니다. 끝난 뒤에는 살펴볼 수 있게 남겨 둡니다.
+set -euo pipefail
+
+HOST=${PGHOST:-localhost}
+PORT0=${PORT0:-5432}
+PORT1=${PORT1:-5433}
+DBNAME=${DBNAME:-dbterm_shardcheck}
+export PGUSER=${PGUSER:-postgres}
+
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+MIGRATION="$ROOT/database/migration"
+
+psql_on() { local port=$1; shift; psql -X -q -v ON_ERROR_STOP=1 -h "$HOST" -p "$port" "$@"; }
+recreate() { dropdb --if-exists -h "$HOST" -p "$1" "$2"; createdb -h "$HOST" -p "$1" "$2"; }
+
+echo "== 전역 DB $DBNAME (:$PORT0)"
+recreate "$PORT0" "$DBNAME"
+pg_restore --no-owner --no-privileges -h "$HOST" -p "$PORT0" -d "$DBNAME" "$ROOT/database/dbterm.sql"
+for f in "$MIGRATION"/00[1-7]_*.sql; do
+    echo "   $(basename "$f")"
+    psql_on "$PORT0" -d "$DBNAME" -f "$f"
+done
+
+echo "== 샤드 복제"
+recreate "$PORT0" "${DBNAME}_shard0"
+recreate "$PORT1" "${DBNAME}_shard1"
+pg_dump -Fc -h "$HOST" -p "$PORT0" "$DBNAME" > "${TMPDIR:-/tmp}/$DBNAME.dump"
+pg_restore --no-owner --no-privileges -h "$HOST" -p "$PORT0" -d "${DBNAME}_shard0" "${TMPDIR:-/tmp}/$DBNAME.dump"
+pg_restore --no-owner --no-privileges -h "$HOST" -p "$PORT1" -d "${DBNAME}_shard1" "${TMPDIR:-/tmp}/$DBNAME.dump"
+rm -f "${TMPDIR:-/tmp}/$DBNAME.dump"
+
+echo "== 008_case_shards.sql"
+psql_on "$PORT0" -d "${DBNAME}_shard0" -v shard_index=0 -v shard_count=2 -f "$MIGRATION/008_case_shards.sql"
+psql_on "$PORT1" -d "${DBNAME}_shard1" -v shard_index=1 -v shard_count=2 -f "$MIGRATION/008_case_shards.sql"
+
+echo "== 009_score_outbox.sql"
+psql_on "$PORT0" -d "$DBNAME" -f "$MIGRATION/009_score_outbox.sql"
+psql_on "$PORT0" -d "${DBNAME}_shard0" -f "$MIGRATION/009_score_outbox.sql"
+psql_on "$PORT1" -d "${DBNAME}_shard1" -f "$MIGRATION/009_score_outbox.sql"
+
+# 008 이 사건 행을 나머지류대로 나눴는지
+for i in 0 1; do
+    port=$([ "$i" = 0 ] && echo "$PORT0" || echo "$PORT1")
+    stray=$(psql_on "$port" -d "${DBNAME}_shard$i" -At -c "SELECT count(*) FROM case_info WHERE case_id % 2 <> $i")
+    if [ "$stray" != 0 ]; then
+        echo "샤드 $i 에 다른 샤드의 사건 $stray 건이 남아 있습니다." >&2
+        exit 1
+    fi
+done
+
+echo "== CaseShardingTest"
+cd "$ROOT/backend"
+DBTERM_TEST_DB_URL="jdbc:postgresql://$HOST:$PORT0/$DBNAME" \
+DBTERM_TEST_SHARD_URLS="jdbc:postgresql://$HOST:$PORT0/${DBNAME}_shard0,jdbc:postgresql://$HOST:$PORT1/${DBNAME}_shard1" \
+DBTERM_TEST_DB_USER="$PGUSER" \
+DBTERM_TEST_DB_PASSWORD="${PGPASSWORD:-}" \
+    mvn -B test -Dtest=CaseShardingTest